@@ -0,0 +1,168 @@
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+
+// the operations measured by the JMH benchmarks in the benchmarks package, which cannot refer to classes of the unnamed
+// package directly. Every workload is prepared once per trial and returns a function that runs one invocation.
+public final class BenchmarkWorkloads {
+    public static final int AVERAGE_DEGREE = 8;
+    public static final long SEED = 42;
+    private static final int QUERY_COUNT = 1024;
+
+    private BenchmarkWorkloads() {
+    }
+
+    public static IntFunction<Object> create(String workload, String graphKind, int vertexCount, String representation) {
+        GeneratedGraph generated = GraphGenerators.generate(graphKind, vertexCount, AVERAGE_DEGREE, SEED);
+        // the same seeded queries for every representation. Not SEED itself: erdos-renyi draws its edges from that
+        // sequence, so every query would be one of the edges.
+        Random random = new Random(SEED + 1);
+        int[] sources = new int[QUERY_COUNT];
+        int[] targets = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            sources[i] = random.nextInt(generated.vertexCount());
+            targets[i] = random.nextInt(generated.vertexCount());
+        }
+
+        switch (workload) {
+            // mutation
+            case "build":
+                return invocation -> generated.load(GeneratedGraph.newRepresentation(representation));
+            case "buildBatch": {
+                List<Edge<Integer>> edges = generated.getEdges();
+                return invocation -> {
+                    GraphRepresentation<Integer> graph = GeneratedGraph.newRepresentation(representation);
+                    for (int i = 0; i < generated.vertexCount(); i++) {
+                        graph.addVertex(i);
+                    }
+                    graph.addEdges(edges);
+                    return graph;
+                };
+            }
+            case "removeAndAddEdge": {
+                GraphRepresentation<Integer> graph = generated.load(GeneratedGraph.newRepresentation(representation));
+                return invocation -> {
+                    int edge = invocation % generated.edgeCount();
+                    graph.removeEdge(generated.getSource(edge), generated.getTarget(edge));
+                    graph.addEdge(generated.getSource(edge), generated.getTarget(edge), generated.getWeight(edge));
+                    return graph;
+                };
+            }
+            case "setEdgeWeight": {
+                GraphRepresentation<Integer> graph = generated.load(GeneratedGraph.newRepresentation(representation));
+                return invocation -> {
+                    int edge = invocation % generated.edgeCount();
+                    graph.setEdgeWeight(generated.getSource(edge), generated.getTarget(edge), generated.getWeight(edge) + (invocation & 1));
+                    return graph;
+                };
+            }
+
+            // neighbour iteration, every invocation visits all edges once
+            case "indexCursor": {
+                GraphRepresentation<Integer> graph = generated.build(representation);
+                return invocation -> {
+                    double sum = 0;
+                    int bound = graph.vertexIndexBound();
+                    for (int i = 0; i < bound; i++) {
+                        int count = graph.neighbourCount(i);
+                        for (int j = 0; j < count; j++) {
+                            sum += graph.getNeighbourIndex(i, j) + graph.getNeighbourWeight(i, j);
+                        }
+                    }
+                    return sum;
+                };
+            }
+            case "forEachNeighbour": {
+                GraphRepresentation<Integer> graph = generated.build(representation);
+                return invocation -> {
+                    double[] sum = new double[1];
+                    int bound = graph.vertexIndexBound();
+                    for (int i = 0; i < bound; i++) {
+                        graph.forEachNeighbour(i, (neighbourIndex, weight) -> sum[0] += neighbourIndex + weight);
+                    }
+                    return sum[0];
+                };
+            }
+            case "vertexNeighbours": {
+                GraphRepresentation<Integer> graph = generated.build(representation);
+                return invocation -> {
+                    long sum = 0;
+                    for (Integer vertex : graph.getVertexList()) {
+                        for (Integer neighbour : graph.getVertexNeighbours(vertex)) {
+                            sum += neighbour;
+                        }
+                    }
+                    return sum;
+                };
+            }
+
+            // shortest paths
+            case "dijkstraTree": {
+                Dijkstra<Integer> dijkstra = new Dijkstra<>(generated.build(representation));
+                return invocation -> dijkstra.getShortestPathTree(sources[invocation % QUERY_COUNT]);
+            }
+            case "dijkstraPointToPoint": {
+                Dijkstra<Integer> dijkstra = new Dijkstra<>(generated.build(representation));
+                return invocation -> dijkstra.getShortestPathLength(sources[invocation % QUERY_COUNT], targets[invocation % QUERY_COUNT]);
+            }
+            case "bidirectionalDijkstra": {
+                BidirectionalDijkstra<Integer> dijkstra = new BidirectionalDijkstra<>(generated.build(representation));
+                return invocation -> dijkstra.getShortestPathLength(sources[invocation % QUERY_COUNT], targets[invocation % QUERY_COUNT]);
+            }
+            case "aStar": {
+                // grid vertex ids are y * side + x and every edge weighs at least 1, so the manhattan distance never
+                // overestimates. The other graphs have no such estimate, with 0 A* pays its overhead over Dijkstra.
+                int side = (int) Math.sqrt(generated.vertexCount());
+                Heuristic<Integer> heuristic = generated.getName().equals("grid")
+                        ? (vertex, target) -> Math.abs(vertex % side - target % side) + Math.abs(vertex / side - target / side)
+                        : (vertex, target) -> 0.0;
+                AStar<Integer> aStar = new AStar<>(generated.build(representation), heuristic);
+                return invocation -> aStar.getShortestPathLength(sources[invocation % QUERY_COUNT], targets[invocation % QUERY_COUNT]);
+            }
+            case "contractionHierarchy": {
+                // preprocessing is part of the trial setup, not of the measurement
+                ContractionHierarchySearch<Integer> search = new ContractionHierarchySearch<>(new ContractionHierarchy<>(generated.build(representation)));
+                return invocation -> search.getShortestPathLength(sources[invocation % QUERY_COUNT], targets[invocation % QUERY_COUNT]);
+            }
+            case "contractionHierarchyPath": {
+                ContractionHierarchySearch<Integer> search = new ContractionHierarchySearch<>(new ContractionHierarchy<>(generated.build(representation)));
+                return invocation -> search.getShortestPath(sources[invocation % QUERY_COUNT], targets[invocation % QUERY_COUNT]);
+            }
+            case "deltaStepping": {
+                DeltaStepping<Integer> deltaStepping = new DeltaStepping<>(generated.build(representation), 1.0);
+                return invocation -> deltaStepping.getShortestPathTree(sources[invocation % QUERY_COUNT]);
+            }
+
+            // traversal
+            case "breadthFirstSearch": {
+                Graph<Integer> graph = new Graph<>(generated.build(representation));
+                return invocation -> graph.BreadthFirstSearch(sources[invocation % QUERY_COUNT]);
+            }
+            case "parallelBreadthFirstSearch": {
+                ParallelBreadthFirstSearch<Integer> search = new ParallelBreadthFirstSearch<>(generated.build(representation));
+                return invocation -> search.search(sources[invocation % QUERY_COUNT]);
+            }
+            case "stronglyConnectedComponents": {
+                GraphRepresentation<Integer> graph = generated.build(representation);
+                return invocation -> new StronglyConnectedComponents<>(graph).getComponentCount();
+            }
+            case "isCyclic": {
+                Graph<Integer> graph = new Graph<>(generated.build(representation));
+                return invocation -> graph.isCyclic();
+            }
+
+            // longest paths, acyclic graphs only
+            case "diameter": {
+                GraphRepresentation<Integer> graph = generated.build(representation);
+                return invocation -> new LongestPaths<>(graph).getDiameter();
+            }
+            case "diameterParallel": {
+                GraphRepresentation<Integer> graph = generated.build(representation);
+                return invocation -> new LongestPaths<>(graph, ForkJoinPool.commonPool()).getDiameter();
+            }
+            default:
+                throw new IllegalArgumentException("Unknown workload " + workload + "!");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// edges of a generated graph over the vertices 0 .. vertexCount - 1, sorted by source, without self loops or duplicates
+public class GeneratedGraph {
+    private final String name;
+    private final int vertexCount;
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] weights;
+
+    // keys are source << 32 | target, weights in [1, 2) are drawn from random after sorting
+    GeneratedGraph(String name, int vertexCount, long[] keys, int keyCount, Random random) {
+        this.name = name;
+        this.vertexCount = vertexCount;
+        Arrays.sort(keys, 0, keyCount);
+        int edgeCount = 0;
+        for (int i = 0; i < keyCount; i++) {
+            long key = keys[i];
+            if ((int) (key >>> 32) != (int) key && (edgeCount == 0 || keys[edgeCount - 1] != key)) {
+                keys[edgeCount++] = key;
+            }
+        }
+        this.sources = new int[edgeCount];
+        this.targets = new int[edgeCount];
+        this.weights = new double[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            this.sources[i] = (int) (keys[i] >>> 32);
+            this.targets[i] = (int) keys[i];
+            this.weights[i] = 1.0 + random.nextDouble();
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int vertexCount() {
+        return this.vertexCount;
+    }
+
+    public int edgeCount() {
+        return this.sources.length;
+    }
+
+    public int getSource(int edge) {
+        return this.sources[edge];
+    }
+
+    public int getTarget(int edge) {
+        return this.targets[edge];
+    }
+
+    public double getWeight(int edge) {
+        return this.weights[edge];
+    }
+
+    public List<Edge<Integer>> getEdges() {
+        List<Edge<Integer>> edges = new ArrayList<>(this.sources.length);
+        for (int i = 0; i < this.sources.length; i++) {
+            edges.add(new Edge<>(this.sources[i], this.targets[i], this.weights[i]));
+        }
+        return edges;
+    }
+
+    // adds every vertex and then every edge one at a time
+    public <R extends GraphRepresentation<Integer>> R load(R representation) {
+        for (int i = 0; i < this.vertexCount; i++) {
+            representation.addVertex(i);
+        }
+        for (int i = 0; i < this.sources.length; i++) {
+            representation.addEdge(this.sources[i], this.targets[i], this.weights[i]);
+        }
+        return representation;
+    }
+
+    // "csr" for a frozen copy, otherwise an empty representation from newRepresentation filled with load
+    public GraphRepresentation<Integer> build(String representation) {
+        if (representation.equals("csr")) {
+            return new CompressedSparseRowRepresentation<>(this.load(new AdjacencyListRepresentation<>()));
+        }
+        return this.load(newRepresentation(representation));
+    }
+
+    // "adjacency-list", "adjacency-list-unindexed", "adjacency-list-incoming", "off-heap", "off-heap-incoming"
+    // or "concurrent"
+    public static GraphRepresentation<Integer> newRepresentation(String representation) {
+        switch (representation) {
+            case "adjacency-list":
+                return new AdjacencyListRepresentation<>();
+            case "adjacency-list-unindexed":
+                // edges of hub vertices are found by a linear scan too
+                return new AdjacencyListRepresentation<>(Integer.MAX_VALUE);
+            case "adjacency-list-incoming":
+                return new AdjacencyListRepresentation<>(AdjacencyListRepresentation.DEFAULT_EDGE_INDEX_THRESHOLD, true);
+            case "off-heap":
+                return new OffHeapRepresentation<>();
+            case "off-heap-incoming":
+                return new OffHeapRepresentation<>(true);
+            case "concurrent":
+                return new ConcurrentGraphRepresentation<>();
+            default:
+                throw new IllegalArgumentException("Unknown mutable representation " + representation + "!");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.name + " (" + this.vertexCount + " vertices, " + this.sources.length + " edges)";
+    }
+}
@@ -0,0 +1,133 @@
+import java.util.Random;
+
+// seeded synthetic graphs, the same arguments always give the same graph
+public final class GraphGenerators {
+    // R-MAT quadrant probabilities of the Graph500 generator, the fourth is 1 - A - B - C
+    static final double RMAT_A = 0.57;
+    static final double RMAT_B = 0.19;
+    static final double RMAT_C = 0.19;
+
+    private GraphGenerators() {
+    }
+
+    // "erdos-renyi", "rmat", "grid" or "dag"
+    public static GeneratedGraph generate(String kind, int vertexCount, int averageDegree, long seed) {
+        switch (kind) {
+            case "erdos-renyi":
+                return erdosRenyi(vertexCount, averageDegree, seed);
+            case "rmat":
+                return rmat(vertexCount, averageDegree, seed);
+            case "grid":
+                return grid(vertexCount, seed);
+            case "dag":
+                return deepDag(vertexCount, averageDegree, seed);
+            default:
+                throw new IllegalArgumentException("Unknown graph kind " + kind + "!");
+        }
+    }
+
+    // G(n, m) with m = vertexCount * averageDegree directed edges drawn uniformly, duplicates are dropped
+    public static GeneratedGraph erdosRenyi(int vertexCount, int averageDegree, long seed) {
+        Random random = new Random(seed);
+        long[] keys = new long[vertexCount * averageDegree];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(random.nextInt(vertexCount), random.nextInt(vertexCount));
+        }
+        return new GeneratedGraph("erdos-renyi", vertexCount, keys, keys.length, random);
+    }
+
+    // recursive matrix graph with a power law degree distribution, every edge picks one quadrant of the adjacency
+    // matrix per bit of the vertex ids, ids outside vertexCount are drawn again
+    public static GeneratedGraph rmat(int vertexCount, int averageDegree, long seed) {
+        Random random = new Random(seed);
+        int scale = 32 - Integer.numberOfLeadingZeros(Math.max(1, vertexCount - 1));
+        long[] keys = new long[vertexCount * averageDegree];
+        for (int i = 0; i < keys.length; i++) {
+            int source;
+            int target;
+            do {
+                source = 0;
+                target = 0;
+                for (int bit = 0; bit < scale; bit++) {
+                    double quadrant = random.nextDouble();
+                    source <<= 1;
+                    target <<= 1;
+                    if (quadrant >= RMAT_A + RMAT_B + RMAT_C) {
+                        source |= 1;
+                        target |= 1;
+                    } else if (quadrant >= RMAT_A + RMAT_B) {
+                        source |= 1;
+                    } else if (quadrant >= RMAT_A) {
+                        target |= 1;
+                    }
+                }
+            } while (source >= vertexCount || target >= vertexCount);
+            keys[i] = key(source, target);
+        }
+        // hubs would otherwise all sit at the lowest ids
+        int[] permutation = permutation(vertexCount, random);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(permutation[(int) (keys[i] >>> 32)], permutation[(int) keys[i]]);
+        }
+        return new GeneratedGraph("rmat", vertexCount, keys, keys.length, random);
+    }
+
+    // road-like: a square grid of the largest side that fits in vertexCount, two way roads between neighbours,
+    // about one road in twenty missing
+    public static GeneratedGraph grid(int vertexCount, long seed) {
+        Random random = new Random(seed);
+        int side = (int) Math.sqrt(vertexCount);
+        long[] keys = new long[4 * side * side];
+        int keyCount = 0;
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int vertex = y * side + x;
+                if (x + 1 < side && random.nextInt(20) != 0) {
+                    keys[keyCount++] = key(vertex, vertex + 1);
+                    keys[keyCount++] = key(vertex + 1, vertex);
+                }
+                if (y + 1 < side && random.nextInt(20) != 0) {
+                    keys[keyCount++] = key(vertex, vertex + side);
+                    keys[keyCount++] = key(vertex + side, vertex);
+                }
+            }
+        }
+        return new GeneratedGraph("grid", side * side, keys, keyCount, random);
+    }
+
+    // acyclic with a longest path of vertexCount - 1 edges: in topological order every vertex has an edge to the
+    // next one and averageDegree - 1 more to vertices up to 4 * averageDegree positions ahead, ids are shuffled
+    public static GeneratedGraph deepDag(int vertexCount, int averageDegree, long seed) {
+        Random random = new Random(seed);
+        int[] permutation = permutation(vertexCount, random);
+        int window = 4 * averageDegree;
+        long[] keys = new long[vertexCount * averageDegree];
+        int keyCount = 0;
+        for (int i = 0; i + 1 < vertexCount; i++) {
+            keys[keyCount++] = key(permutation[i], permutation[i + 1]);
+            for (int j = 1; j < averageDegree; j++) {
+                int ahead = Math.min(vertexCount - 1, i + 1 + random.nextInt(window));
+                keys[keyCount++] = key(permutation[i], permutation[ahead]);
+            }
+        }
+        return new GeneratedGraph("dag", vertexCount, keys, keyCount, random);
+    }
+
+    private static long key(int source, int target) {
+        return ((long) source << 32) | (target & 0xFFFFFFFFL);
+    }
+
+    private static int[] permutation(int size, Random random) {
+        int[] permutation = new int[size];
+        for (int i = 0; i < size; i++) {
+            permutation[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = swap;
+        }
+        return permutation;
+    }
+}
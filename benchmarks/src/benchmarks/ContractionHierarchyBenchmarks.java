@@ -0,0 +1,45 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// point to point queries on a contracted road-like graph, compare with ShortestPathBenchmarks on the same graph.
+// Contracting takes a while, so the graphs are smaller than there.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContractionHierarchyBenchmarks extends WorkloadBenchmark {
+    @Param({"grid"})
+    public String graph;
+
+    @Param({"10000", "100000"})
+    public int vertexCount;
+
+    @Param({"csr"})
+    public String representation;
+
+    // distance only
+    @Benchmark
+    public Object contractionHierarchy() {
+        return this.next();
+    }
+
+    // shortcuts unpacked into a Path
+    @Benchmark
+    public Object contractionHierarchyPath() {
+        return this.next();
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// longest paths are only defined on acyclic graphs
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiameterBenchmarks extends WorkloadBenchmark {
+    @Param({"dag"})
+    public String graph;
+
+    @Param({"10000", "100000", "1000000"})
+    public int vertexCount;
+
+    @Param({"adjacency-list-incoming", "csr"})
+    public String representation;
+
+    @Benchmark
+    public Object diameter() {
+        return this.next();
+    }
+
+    // sink peeling on the common pool
+    @Benchmark
+    public Object diameterParallel() {
+        return this.next();
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutationBenchmarks extends WorkloadBenchmark {
+    @Param({"erdos-renyi", "rmat", "grid"})
+    public String graph;
+
+    @Param({"10000", "100000"})
+    public int vertexCount;
+
+    // adjacency-list-unindexed shows what the per-vertex edge index saves on the hubs of rmat
+    @Param({"adjacency-list", "adjacency-list-unindexed", "adjacency-list-incoming", "off-heap", "concurrent"})
+    public String representation;
+
+    // every vertex and edge added one at a time to an empty representation
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object build() {
+        return this.next();
+    }
+
+    // the edges added as one batch
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object buildBatch() {
+        return this.next();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object removeAndAddEdge() {
+        return this.next();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object setEdgeWeight() {
+        return this.next();
+    }
+}
@@ -0,0 +1,49 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// every invocation visits all edges of the graph once
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NeighbourIterationBenchmarks extends WorkloadBenchmark {
+    @Param({"erdos-renyi", "rmat", "grid"})
+    public String graph;
+
+    @Param({"10000", "100000", "1000000"})
+    public int vertexCount;
+
+    @Param({"adjacency-list", "off-heap", "concurrent", "csr"})
+    public String representation;
+
+    // neighbourCount, getNeighbourIndex and getNeighbourWeight
+    @Benchmark
+    public Object indexCursor() {
+        return this.next();
+    }
+
+    @Benchmark
+    public Object forEachNeighbour() {
+        return this.next();
+    }
+
+    // getVertexList and getVertexNeighbours, the object API
+    @Benchmark
+    public Object vertexNeighbours() {
+        return this.next();
+    }
+}
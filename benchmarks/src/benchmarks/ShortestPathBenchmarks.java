@@ -0,0 +1,63 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// queries cycle through 1024 seeded source and target vertices
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+// a million vertex rmat graph in adjacency lists with incoming edges does not fit the default heap
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ShortestPathBenchmarks extends WorkloadBenchmark {
+    @Param({"erdos-renyi", "rmat", "grid"})
+    public String graph;
+
+    @Param({"10000", "100000", "1000000"})
+    public int vertexCount;
+
+    // bidirectionalDijkstra needs incoming edges
+    @Param({"adjacency-list-incoming", "csr"})
+    public String representation;
+
+    // single source, all vertices
+    @Benchmark
+    public Object dijkstraTree() {
+        return this.next();
+    }
+
+    @Benchmark
+    public Object dijkstraPointToPoint() {
+        return this.next();
+    }
+
+    @Benchmark
+    public Object bidirectionalDijkstra() {
+        return this.next();
+    }
+
+    // manhattan distance on the grid, no estimate on the other graphs
+    @Benchmark
+    public Object aStar() {
+        return this.next();
+    }
+
+    // single source, all vertices, on the common pool. Compare with dijkstraTree for the speedup and vary the threads
+    // with -jvmArgsAppend -Djava.util.concurrent.ForkJoinPool.common.parallelism=N
+    @Benchmark
+    public Object deltaStepping() {
+        return this.next();
+    }
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+// a million vertex rmat graph in adjacency lists with incoming edges does not fit the default heap
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TraversalBenchmarks extends WorkloadBenchmark {
+    // dag is the worst case for cycle detection, every vertex is visited
+    @Param({"erdos-renyi", "rmat", "grid", "dag"})
+    public String graph;
+
+    @Param({"10000", "100000", "1000000"})
+    public int vertexCount;
+
+    @Param({"adjacency-list-incoming", "csr"})
+    public String representation;
+
+    @Benchmark
+    public Object breadthFirstSearch() {
+        return this.next();
+    }
+
+    @Benchmark
+    public Object parallelBreadthFirstSearch() {
+        return this.next();
+    }
+
+    @Benchmark
+    public Object stronglyConnectedComponents() {
+        return this.next();
+    }
+
+    @Benchmark
+    public Object isCyclic() {
+        return this.next();
+    }
+}
@@ -0,0 +1,35 @@
+package benchmarks;
+
+import java.util.function.IntFunction;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+// JMH does not accept benchmarks in the unnamed package and a named package cannot refer to the graph classes in it,
+// so the measured operations live in BenchmarkWorkloads and are looked up by reflection once per trial. The workload
+// is named after the benchmark method and built from its graph, vertexCount and representation parameters.
+@State(Scope.Thread)
+public abstract class WorkloadBenchmark {
+    private IntFunction<Object> workload;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) throws ReflectiveOperationException {
+        String benchmark = params.getBenchmark();
+        this.workload = (IntFunction<Object>) Class.forName("BenchmarkWorkloads")
+                .getMethod("create", String.class, String.class, int.class, String.class)
+                .invoke(null, benchmark.substring(benchmark.lastIndexOf('.') + 1), params.getParam("graph"),
+                        Integer.parseInt(params.getParam("vertexCount")), params.getParam("representation"));
+        this.invocation = 0;
+    }
+
+    // the result goes back to JMH so the work is not optimized away
+    protected Object next() {
+        Object result = this.workload.apply(this.invocation);
+        this.invocation = (this.invocation + 1) & Integer.MAX_VALUE;
+        return result;
+    }
+}
@@ -0,0 +1,154 @@
+import java.util.Arrays;
+
+// point to point search guided by an admissible heuristic, settled vertices are reopened when the heuristic
+// is not consistent, positive weights assumed, not thread safe
+public class AStar<V> implements ShortestPathFinder<V> {
+    private final GraphRepresentation<V> representation;
+    // snapshot of the representation the current query runs on
+    private GraphRepresentation<V> graph;
+    private final Heuristic<V> heuristic;
+    private final IndexedDaryHeap heap;
+    private double[] distances;
+    private double[] estimates;
+    private int[] parents;
+    private int[] reachedStamps;
+    private int queryStamp;
+    private int sourceIndex;
+    private int settledCount;
+    private long relaxedCount;
+    private long pushCount;
+    private Instrumentation instrumentation;
+
+    public AStar(GraphRepresentation<V> graphRepresentation, Heuristic<V> heuristic) {
+        this.representation = graphRepresentation;
+        this.graph = graphRepresentation;
+        this.heuristic = heuristic;
+        int bound = graphRepresentation.vertexIndexBound();
+        this.heap = new IndexedDaryHeap(bound);
+        this.distances = new double[bound];
+        this.estimates = new double[bound];
+        this.parents = new int[bound];
+        this.reachedStamps = new int[bound];
+    }
+
+    @Override
+    public Path<V> getShortestPath(V startVertex, V endVertex) {
+        QueryMetrics metrics = this.instrumentation == null ? null : new QueryMetrics("a-star");
+        long start = metrics == null ? 0 : System.nanoTime();
+        this.graph = this.representation.snapshot();
+        int endIndex = this.graph.getVertexIndex(endVertex);
+        int startIndex = this.graph.getVertexIndex(startVertex);
+        this.prepare(startIndex);
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.PREPARE, start);
+        }
+        boolean isReachable = this.search(startIndex, endIndex, endVertex);
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.SEARCH, start);
+        }
+        Path<V> path = !isReachable ? null
+                : ShortestPathTree.buildPath(this.graph, this.sourceIndex, endIndex, idx -> this.parents[idx], this.distances[endIndex]);
+        if (metrics != null) {
+            this.finish(metrics, start);
+        }
+        return path;
+    }
+
+    @Override
+    public double getShortestPathLength(V startVertex, V endVertex) {
+        QueryMetrics metrics = this.instrumentation == null ? null : new QueryMetrics("a-star");
+        long start = metrics == null ? 0 : System.nanoTime();
+        this.graph = this.representation.snapshot();
+        int endIndex = this.graph.getVertexIndex(endVertex);
+        int startIndex = this.graph.getVertexIndex(startVertex);
+        this.prepare(startIndex);
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.PREPARE, start);
+        }
+        boolean isReachable = this.search(startIndex, endIndex, endVertex);
+        if (metrics != null) {
+            this.finish(metrics, metrics.endPhase(QueryMetrics.Phase.SEARCH, start));
+        }
+        return isReachable ? this.distances[endIndex] : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public int getSettledCount() {
+        return this.settledCount;
+    }
+
+    @Override
+    public void setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    // reopened vertices are pushed and settled again, so pushes are counted rather than derived
+    private void finish(QueryMetrics metrics, long resultStart) {
+        metrics.endPhase(QueryMetrics.Phase.RESULT, resultStart);
+        metrics.verticesSettled = this.settledCount;
+        metrics.edgesRelaxed = this.relaxedCount;
+        metrics.heapPushes = this.pushCount;
+        metrics.heapPops = this.settledCount;
+        this.instrumentation.queryFinished(metrics);
+    }
+
+    // the query must be prepared for startIndex
+    private boolean search(int startIndex, int endIndex, V endVertex) {
+        this.estimates[startIndex] = this.heuristic.estimate(this.graph.getVertexAt(startIndex), endVertex);
+        this.heap.insert(startIndex, this.estimates[startIndex]);
+        this.pushCount = 1;
+        while (!this.heap.isEmpty()) {
+            int vertex = this.heap.pollMin();
+            this.settledCount++;
+            if (vertex == endIndex) {
+                return true;
+            }
+            double distance = this.distances[vertex];
+            int neighbourCount = this.graph.neighbourCount(vertex);
+            this.relaxedCount += neighbourCount;
+            for (int i = 0; i < neighbourCount; i++) {
+                int neighbour = this.graph.getNeighbourIndex(vertex, i);
+                double newDistance = distance + this.graph.getNeighbourWeight(vertex, i);
+                if (this.reachedStamps[neighbour] != this.queryStamp) {
+                    this.reachedStamps[neighbour] = this.queryStamp;
+                    this.estimates[neighbour] = this.heuristic.estimate(this.graph.getVertexAt(neighbour), endVertex);
+                } else if (newDistance >= this.distances[neighbour]) {
+                    continue;
+                }
+                this.distances[neighbour] = newDistance;
+                this.parents[neighbour] = vertex;
+                if (this.heap.contains(neighbour)) {
+                    this.heap.decreaseKey(neighbour, newDistance + this.estimates[neighbour]);
+                } else {
+                    this.heap.insert(neighbour, newDistance + this.estimates[neighbour]);
+                    this.pushCount++;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void prepare(int startIndex) {
+        int bound = this.graph.vertexIndexBound();
+        if (bound > this.distances.length) {
+            int capacity = Math.max(bound, this.distances.length * 2);
+            this.heap.ensureCapacity(capacity);
+            this.distances = Arrays.copyOf(this.distances, capacity);
+            this.estimates = Arrays.copyOf(this.estimates, capacity);
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.reachedStamps = Arrays.copyOf(this.reachedStamps, capacity);
+        }
+        this.heap.clear();
+        this.queryStamp++;
+        if (this.queryStamp == 0) {
+            Arrays.fill(this.reachedStamps, 0);
+            this.queryStamp = 1;
+        }
+        this.settledCount = 0;
+        this.relaxedCount = 0;
+        this.sourceIndex = startIndex;
+        this.reachedStamps[startIndex] = this.queryStamp;
+        this.distances[startIndex] = 0.0;
+        this.parents[startIndex] = -1;
+    }
+}
@@ -1,67 +1,286 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 public class AdjacencyListRepresentation<V> implements GraphRepresentation<V> {
 
     private static class NeighbourVertex {
         int vertexIndex;
+        // generation of the neighbour slot when the edge was added, tells dangling edges apart from reused slots
+        int generation;
         double weight;
 
-        NeighbourVertex(int vertexIndex, double weight) {
+        NeighbourVertex(int vertexIndex, int generation, double weight) {
             this.vertexIndex = vertexIndex;
+            this.generation = generation;
             this.weight = weight;
         }
     }
 
-    private ArrayList<ArrayList<NeighbourVertex>> adjacencyList;
+    private static class NeighbourList {
+        ArrayList<NeighbourVertex> neighbours = new ArrayList<>();
+        // neighbour index -> position in neighbours, null until the list reaches the edge index threshold
+        HashMap<Integer, Integer> positions;
+        // value of removalCount when dangling edges were last dropped from this list
+        int checkedRemovals;
+
+        int find(int vertexIndex) {
+            if(this.positions != null) {
+                Integer position = this.positions.get(vertexIndex);
+                return position != null ? position : -1;
+            }
+            for(int i = 0; i < this.neighbours.size(); i++) {
+                if(this.neighbours.get(i).vertexIndex == vertexIndex) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void add(int vertexIndex, int generation, double weight, int edgeIndexThreshold) {
+            this.neighbours.add(new NeighbourVertex(vertexIndex, generation, weight));
+            if(this.positions != null) {
+                this.positions.put(vertexIndex, this.neighbours.size() - 1);
+            } else if(this.neighbours.size() >= edgeIndexThreshold) {
+                this.rebuildIndex();
+            }
+        }
+
+        void remove(int position) {
+            if(this.positions == null) {
+                this.neighbours.remove(position);
+                return;
+            }
+            // indexed lists do not keep insertion order, the last neighbour takes the freed position
+            NeighbourVertex removed = this.neighbours.get(position);
+            NeighbourVertex lastNeighbour = this.neighbours.remove(this.neighbours.size() - 1);
+            this.positions.remove(removed.vertexIndex);
+            if(position < this.neighbours.size()) {
+                this.neighbours.set(position, lastNeighbour);
+                this.positions.put(lastNeighbour.vertexIndex, position);
+            }
+        }
+
+        // one pass over an unindexed list instead of a shifting remove per entry, returns how many were removed
+        int removeAll(Set<Integer> vertexIndexes) {
+            int sizeBefore = this.neighbours.size();
+            if (this.positions != null) {
+                for (int vertexIndex : vertexIndexes) {
+                    int position = this.find(vertexIndex);
+                    if (position >= 0) {
+                        this.remove(position);
+                    }
+                }
+            } else {
+                this.neighbours.removeIf(neighbour -> vertexIndexes.contains(neighbour.vertexIndex));
+            }
+            return sizeBefore - this.neighbours.size();
+        }
+
+        void rebuildIndex() {
+            this.positions = new HashMap<>(Math.max(16, this.neighbours.size() * 2));
+            for(int i = 0; i < this.neighbours.size(); i++) {
+                this.positions.put(this.neighbours.get(i).vertexIndex, i);
+            }
+        }
+    }
+
+    public static final int DEFAULT_EDGE_INDEX_THRESHOLD = 16;
+    // removed vertices leave tombstoned slots, the representation compacts itself once they make up this share of all slots
+    public static final double COMPACTION_THRESHOLD = 0.5;
+    private static final int MIN_SLOTS_TO_COMPACT = 64;
+
+    private ArrayList<NeighbourList> adjacencyList;
+    // null unless incoming edges are tracked
+    private ArrayList<NeighbourList> incomingList;
+    // null marks a tombstoned slot
     private ArrayList<V> vertices;
     private HashMap<V, Integer> vertexIndexes;
+    private int[] generations;
+    private int[] freeSlots;
+    private int freeSlotCount;
+    // vertices removed without incoming edges to drop their edges eagerly, lists catch up lazily on access
+    private int removalCount;
+    private long modificationCount;
+    private final int edgeIndexThreshold;
 
     public AdjacencyListRepresentation() {
+        this(DEFAULT_EDGE_INDEX_THRESHOLD);
+    }
+
+    // 0 indexes every vertex, Integer.MAX_VALUE disables the edge index
+    public AdjacencyListRepresentation(int edgeIndexThreshold) {
+        this(edgeIndexThreshold, false);
+    }
+
+    // tracking incoming edges doubles the edge memory, but makes parent queries O(in-degree) and transposing free
+    public AdjacencyListRepresentation(int edgeIndexThreshold, boolean trackIncomingEdges) {
+        if (edgeIndexThreshold < 0) {
+            throw new IllegalArgumentException("Edge index threshold must not be negative!");
+        }
         this.adjacencyList = new ArrayList<>();
+        this.incomingList = trackIncomingEdges ? new ArrayList<>() : null;
         this.vertices = new ArrayList<>();
         this.vertexIndexes = new HashMap<>();
+        this.generations = new int[16];
+        this.freeSlots = new int[16];
+        this.edgeIndexThreshold = edgeIndexThreshold;
     }
 
     @Override
     public void addVertex(V vertex) {
+        if (vertex == null) {
+            throw new IllegalArgumentException("Vertex must not be null!");
+        }
         if (this.hasVertex(vertex)) {
             throw new IllegalArgumentException("Vertex already exists!");
         }
+        this.modificationCount++;
+        if (this.freeSlotCount > 0) {
+            int index = this.freeSlots[--this.freeSlotCount];
+            this.vertices.set(index, vertex);
+            this.vertexIndexes.put(vertex, index);
+            this.adjacencyList.set(index, this.newNeighbourList());
+            if (this.incomingList != null) {
+                this.incomingList.set(index, this.newNeighbourList());
+            }
+            return;
+        }
         this.vertices.add(vertex);
         this.vertexIndexes.put(vertex, this.vertices.size() - 1);
-        this.adjacencyList.add(new ArrayList<>());
+        this.adjacencyList.add(this.newNeighbourList());
+        if (this.incomingList != null) {
+            this.incomingList.add(this.newNeighbourList());
+        }
+        if (this.vertices.size() > this.generations.length) {
+            this.generations = Arrays.copyOf(this.generations, this.generations.length * 2);
+        }
     }
 
+    // O(degree) with incoming edges tracked, O(1) otherwise, edges pointing to the vertex are then dropped lazily
     @Override
     public void removeVertex(V vertex) {
         if (!this.hasVertex(vertex)) {
             return;
         }
 
-        int index = this.vertexIndexes.get(vertex);
+        this.removeVertexAt(this.vertexIndexes.remove(vertex));
+        this.compactIfSparse();
+    }
+
+    private void removeVertexAt(int index) {
+        this.modificationCount++;
+        if (this.incomingList != null) {
+            for (NeighbourVertex neighbour : this.adjacencyList.get(index).neighbours) {
+                if (neighbour.vertexIndex != index) {
+                    NeighbourList parentList = this.incomingList.get(neighbour.vertexIndex);
+                    parentList.remove(parentList.find(index));
+                }
+            }
+            for (NeighbourVertex parent : this.incomingList.get(index).neighbours) {
+                if (parent.vertexIndex != index) {
+                    NeighbourList neighbourList = this.adjacencyList.get(parent.vertexIndex);
+                    neighbourList.remove(neighbourList.find(index));
+                }
+            }
+            this.incomingList.set(index, null);
+        } else {
+            this.removalCount++;
+        }
 
-        this.adjacencyList.remove(index);
-        this.vertices.remove(index);
+        this.vertices.set(index, null);
+        this.adjacencyList.set(index, null);
+        this.generations[index]++;
+        if (this.freeSlotCount == this.freeSlots.length) {
+            this.freeSlots = Arrays.copyOf(this.freeSlots, this.freeSlots.length * 2);
+        }
+        this.freeSlots[this.freeSlotCount++] = index;
+    }
 
-        for(int i = index; i < this.vertices.size(); i++) {
-            this.vertexIndexes.put(this.vertices.get(i), i);
+    private void compactIfSparse() {
+        if (this.freeSlotCount >= MIN_SLOTS_TO_COMPACT && this.freeSlotCount >= this.vertices.size() * COMPACTION_THRESHOLD) {
+            this.compact();
         }
-        this.vertexIndexes.remove(vertex);
+    }
+
+    // validated once, edge removals filter every touched list in one pass, vertex removals compact at most once,
+    // and added edges are grouped by source vertex without a duplicate lookup each
+    @Override
+    public void applyBatch(GraphBatch<V> batch) {
+        batch.validate(this);
 
-        for(ArrayList<NeighbourVertex> vertexNeighbours : this.adjacencyList) {
-            for(int i = 0; i < vertexNeighbours.size(); i++) {
-                NeighbourVertex currentNeighbour = vertexNeighbours.get(i);
-                if (currentNeighbour.vertexIndex == index) {
-                    vertexNeighbours.remove(i);
-                    i--;
-                } else if (currentNeighbour.vertexIndex > index){
-                    currentNeighbour.vertexIndex -= 1;
+        HashMap<Integer, HashSet<Integer>> removedTargets = new HashMap<>();
+        HashMap<Integer, HashSet<Integer>> removedSources = new HashMap<>();
+        for (Edge<V> edge : batch.getEdgesToRemove()) {
+            Integer indexFrom = this.vertexIndexes.get(edge.vertexFrom);
+            Integer indexTo = this.vertexIndexes.get(edge.vertexTo);
+            if (indexFrom != null && indexTo != null) {
+                removedTargets.computeIfAbsent(indexFrom, key -> new HashSet<>()).add(indexTo);
+                if (this.incomingList != null) {
+                    removedSources.computeIfAbsent(indexTo, key -> new HashSet<>()).add(indexFrom);
                 }
             }
         }
+        for (Map.Entry<Integer, HashSet<Integer>> entry : removedTargets.entrySet()) {
+            this.modificationCount += this.getNeighbourList(entry.getKey()).removeAll(entry.getValue());
+        }
+        for (Map.Entry<Integer, HashSet<Integer>> entry : removedSources.entrySet()) {
+            this.incomingList.get(entry.getKey()).removeAll(entry.getValue());
+        }
+
+        for (V vertex : batch.getVerticesToRemove()) {
+            Integer index = this.vertexIndexes.remove(vertex);
+            if (index != null) {
+                this.removeVertexAt(index);
+            }
+        }
+        this.compactIfSparse();
+
+        for (V vertex : batch.getVerticesToAdd()) {
+            this.addVertex(vertex);
+        }
+
+        List<Edge<V>> edgesToAdd = batch.getEdgesToAdd();
+        long[] keys = new long[edgesToAdd.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) this.vertexIndexes.get(edgesToAdd.get(i).vertexFrom) << 32) | i;
+        }
+        Arrays.sort(keys);
+        for (long key : keys) {
+            Edge<V> edge = edgesToAdd.get((int) key);
+            this.addEdgeUnchecked((int) (key >>> 32), this.vertexIndexes.get(edge.vertexTo), edge.weight);
+        }
+    }
+
+    // renumbers the live vertices densely and drops dangling edges in a single pass over the graph
+    public void compact() {
+        int[] newIndexes = new int[this.vertices.size()];
+        ArrayList<V> compactedVertices = new ArrayList<>(this.vertexCount());
+        for (int i = 0; i < this.vertices.size(); i++) {
+            V vertex = this.vertices.get(i);
+            if (vertex == null) {
+                newIndexes[i] = -1;
+                continue;
+            }
+            newIndexes[i] = compactedVertices.size();
+            this.vertexIndexes.put(vertex, compactedVertices.size());
+            compactedVertices.add(vertex);
+        }
+
+        this.adjacencyList = this.compactLists(this.adjacencyList, newIndexes, compactedVertices.size());
+        if (this.incomingList != null) {
+            this.incomingList = this.compactLists(this.incomingList, newIndexes, compactedVertices.size());
+        }
+        this.vertices = compactedVertices;
+        this.generations = new int[Math.max(16, compactedVertices.size())];
+        this.freeSlotCount = 0;
+        this.removalCount = 0;
+        // every index changes, so anything keyed by them, e.g. ShortestPathCache, must see a modification
+        this.modificationCount++;
     }
 
     @Override
@@ -70,41 +289,64 @@ public class AdjacencyListRepresentation<V> implements GraphRepresentation<V> {
             throw new IllegalArgumentException("Not both vertices exist!");
         }
 
-        if(this.hasEdge(vertexFrom, vertexTo)) {
+        int indexFrom = this.vertexIndexes.get(vertexFrom);
+        int indexTo = this.vertexIndexes.get(vertexTo);
+
+        NeighbourList neighbourList = this.getNeighbourList(indexFrom);
+        if(neighbourList.find(indexTo) >= 0) {
             throw new IllegalArgumentException("Edge already exists!");
         }
 
-        int indexFrom = this.vertexIndexes.get(vertexFrom);
-        int indexTo = this.vertexIndexes.get(vertexTo);
+        this.modificationCount++;
+        neighbourList.add(indexTo, this.generations[indexTo], weight, this.edgeIndexThreshold);
+        if (this.incomingList != null) {
+            this.incomingList.get(indexTo).add(indexFrom, this.generations[indexFrom], weight, this.edgeIndexThreshold);
+        }
+    }
 
-        NeighbourVertex newNeighbour = new NeighbourVertex(indexTo, weight);
-        this.adjacencyList.get(indexFrom).add(newNeighbour);
+    // for callers that already ruled out duplicate edges, skips the lookup addEdge does
+    void addEdgeUnchecked(int indexFrom, int indexTo, double weight) {
+        this.modificationCount++;
+        this.getNeighbourList(indexFrom).add(indexTo, this.generations[indexTo], weight, this.edgeIndexThreshold);
+        if (this.incomingList != null) {
+            this.incomingList.get(indexTo).add(indexFrom, this.generations[indexFrom], weight, this.edgeIndexThreshold);
+        }
     }
 
     @Override
     public void removeEdge(V vertexFrom, V vertexTo) {
-        if (!this.hasVertex(vertexFrom) || !this.hasVertex(vertexTo) || !this.hasEdge(vertexFrom, vertexTo)) {
+        if (!this.hasVertex(vertexFrom) || !this.hasVertex(vertexTo)) {
             return;
         }
 
         int indexFrom = this.vertexIndexes.get(vertexFrom);
         int indexTo = this.vertexIndexes.get(vertexTo);
-
-        ArrayList<NeighbourVertex> neighbourList = this.adjacencyList.get(indexFrom);
-        int i = 0;
-        NeighbourVertex currentNeighbour = neighbourList.get(0);
-
-        while(currentNeighbour.vertexIndex != indexTo) {
-            i++;
-            currentNeighbour = neighbourList.get(i);
+        NeighbourList neighbourList = this.getNeighbourList(indexFrom);
+        int position = neighbourList.find(indexTo);
+        if (position < 0) {
+            return;
         }
 
-        neighbourList.remove(i);
+        this.modificationCount++;
+        neighbourList.remove(position);
+        if (this.incomingList != null) {
+            NeighbourList parentList = this.incomingList.get(indexTo);
+            parentList.remove(parentList.find(indexFrom));
+        }
     }
 
     @Override
     public List<V> getVertexList() {
-        return (List<V>)this.vertices.clone();
+        if (this.freeSlotCount == 0) {
+            return new ArrayList<>(this.vertices);
+        }
+        List<V> vertexList = new ArrayList<>(this.vertexCount());
+        for (V vertex : this.vertices) {
+            if (vertex != null) {
+                vertexList.add(vertex);
+            }
+        }
+        return vertexList;
     }
 
     @Override
@@ -113,11 +355,12 @@ public class AdjacencyListRepresentation<V> implements GraphRepresentation<V> {
             throw new IllegalArgumentException("Vertex does not exist!");
         }
         int vertexIndex = this.vertexIndexes.get(vertex);
-        ArrayList<NeighbourVertex> neighbours = this.adjacencyList.get(vertexIndex);
-        return neighbours.stream()
-                .map(neighbourVertex -> neighbourVertex.vertexIndex)
-                .map(idx -> this.vertices.get(idx))
-                .collect(Collectors.toList());
+        ArrayList<NeighbourVertex> neighbours = this.getNeighbourList(vertexIndex).neighbours;
+        List<V> neighbourVertices = new ArrayList<>(neighbours.size());
+        for(NeighbourVertex neighbour : neighbours) {
+            neighbourVertices.add(this.vertices.get(neighbour.vertexIndex));
+        }
+        return neighbourVertices;
     }
 
     @Override
@@ -125,7 +368,10 @@ public class AdjacencyListRepresentation<V> implements GraphRepresentation<V> {
         List<Edge<V>> edges = new ArrayList<>();
         for(int i = 0; i < this.adjacencyList.size(); i++) {
             V vertexFrom = this.vertices.get(i);
-            for(NeighbourVertex neighbour : this.adjacencyList.get(i)) {
+            if(vertexFrom == null) {
+                continue;
+            }
+            for(NeighbourVertex neighbour : this.getNeighbourList(i).neighbours) {
                 V vertexTo = this.vertices.get(neighbour.vertexIndex);
                 edges.add(new Edge<V>(vertexFrom, vertexTo, neighbour.weight));
             }
@@ -159,20 +405,104 @@ public class AdjacencyListRepresentation<V> implements GraphRepresentation<V> {
             throw new IllegalArgumentException("Edge does not exist!");
         }
         neighbour.weight = weight;
+        this.modificationCount++;
+        if (this.incomingList != null) {
+            int indexFrom = this.vertexIndexes.get(vertexFrom);
+            NeighbourList parentList = this.incomingList.get(neighbour.vertexIndex);
+            parentList.neighbours.get(parentList.find(indexFrom)).weight = weight;
+        }
     }
 
     @Override
     public int vertexCount() {
+        return this.vertices.size() - this.freeSlotCount;
+    }
+
+    @Override
+    public long getModificationCount() {
+        return this.modificationCount;
+    }
+
+    @Override
+    public int getVertexIndex(V vertex) {
+        Integer vertexIndex = this.vertexIndexes.get(vertex);
+        if(vertexIndex == null) {
+            throw new IllegalArgumentException("Vertex does not exist!");
+        }
+        return vertexIndex;
+    }
+
+    @Override
+    public V getVertexAt(int vertexIndex) {
+        return this.vertices.get(vertexIndex);
+    }
+
+    @Override
+    public int vertexIndexBound() {
         return this.vertices.size();
     }
 
+    @Override
+    public int neighbourCount(int vertexIndex) {
+        if (this.vertices.get(vertexIndex) == null) {
+            return 0;
+        }
+        return this.getNeighbourList(vertexIndex).neighbours.size();
+    }
+
+    @Override
+    public int getNeighbourIndex(int vertexIndex, int position) {
+        return this.getNeighbourList(vertexIndex).neighbours.get(position).vertexIndex;
+    }
+
+    @Override
+    public double getNeighbourWeight(int vertexIndex, int position) {
+        return this.getNeighbourList(vertexIndex).neighbours.get(position).weight;
+    }
+
+    @Override
+    public void forEachNeighbour(int vertexIndex, IndexNeighbourVisitor visitor) {
+        if (this.vertices.get(vertexIndex) == null) {
+            return;
+        }
+        for(NeighbourVertex neighbour : this.getNeighbourList(vertexIndex).neighbours) {
+            visitor.visit(neighbour.vertexIndex, neighbour.weight);
+        }
+    }
+
+    @Override
+    public boolean hasIncomingEdges() {
+        return this.incomingList != null;
+    }
+
+    @Override
+    public int parentCount(int vertexIndex) {
+        if (this.vertices.get(vertexIndex) == null) {
+            return 0;
+        }
+        return this.getIncomingList().get(vertexIndex).neighbours.size();
+    }
+
+    @Override
+    public int getParentIndex(int vertexIndex, int position) {
+        return this.getIncomingList().get(vertexIndex).neighbours.get(position).vertexIndex;
+    }
+
+    @Override
+    public double getParentWeight(int vertexIndex, int position) {
+        return this.getIncomingList().get(vertexIndex).neighbours.get(position).weight;
+    }
+
     @Override
     public void print() {
         System.out.println("Printing graph...");
         for (int i = 0; i < this.adjacencyList.size(); i++) {
             V vertexFrom = this.vertices.get(i);
+            if (vertexFrom == null) {
+                continue;
+            }
             System.out.print(vertexFrom + " -> ");
-            for(NeighbourVertex neighbour : this.adjacencyList.get(i)) {
+            for(NeighbourVertex neighbour : this.getNeighbourList(i).neighbours) {
                 V vertexTo = this.vertices.get(neighbour.vertexIndex);
                 double weight = neighbour.weight;
                 System.out.print("(vertex: " + vertexTo + ", weight: " + weight + "); ");
@@ -189,12 +519,81 @@ public class AdjacencyListRepresentation<V> implements GraphRepresentation<V> {
         int indexFrom = this.vertexIndexes.get(vertexFrom);
         int indexTo = this.vertexIndexes.get(vertexTo);
 
-        ArrayList<NeighbourVertex> neighbours = this.adjacencyList.get(indexFrom);
-        for(NeighbourVertex neighbour : neighbours) {
-            if(neighbour.vertexIndex == indexTo) {
-                return neighbour;
+        NeighbourList neighbourList = this.getNeighbourList(indexFrom);
+        int position = neighbourList.find(indexTo);
+        return position >= 0 ? neighbourList.neighbours.get(position) : null;
+    }
+
+    private NeighbourList getNeighbourList(int vertexIndex) {
+        NeighbourList neighbourList = this.adjacencyList.get(vertexIndex);
+        if (neighbourList.checkedRemovals != this.removalCount) {
+            this.dropDanglingEdges(neighbourList);
+        }
+        return neighbourList;
+    }
+
+    private boolean isDangling(NeighbourVertex neighbour) {
+        return this.vertices.get(neighbour.vertexIndex) == null || this.generations[neighbour.vertexIndex] != neighbour.generation;
+    }
+
+    private void dropDanglingEdges(NeighbourList neighbourList) {
+        ArrayList<NeighbourVertex> neighbours = neighbourList.neighbours;
+        int kept = 0;
+        for (int i = 0; i < neighbours.size(); i++) {
+            NeighbourVertex neighbour = neighbours.get(i);
+            if (!this.isDangling(neighbour)) {
+                neighbours.set(kept++, neighbour);
+            }
+        }
+        if (kept < neighbours.size()) {
+            neighbours.subList(kept, neighbours.size()).clear();
+            if (neighbourList.positions != null) {
+                neighbourList.rebuildIndex();
+            }
+        }
+        neighbourList.checkedRemovals = this.removalCount;
+    }
+
+    private ArrayList<NeighbourList> compactLists(ArrayList<NeighbourList> lists, int[] newIndexes, int vertexCount) {
+        ArrayList<NeighbourList> compactedLists = new ArrayList<>(vertexCount);
+        for (int i = 0; i < lists.size(); i++) {
+            if (newIndexes[i] < 0) {
+                continue;
             }
+            NeighbourList neighbourList = lists.get(i);
+            ArrayList<NeighbourVertex> neighbours = neighbourList.neighbours;
+            int kept = 0;
+            for (int j = 0; j < neighbours.size(); j++) {
+                NeighbourVertex neighbour = neighbours.get(j);
+                if (!this.isDangling(neighbour)) {
+                    neighbour.vertexIndex = newIndexes[neighbour.vertexIndex];
+                    neighbour.generation = 0;
+                    neighbours.set(kept++, neighbour);
+                }
+            }
+            neighbours.subList(kept, neighbours.size()).clear();
+            if (neighbourList.positions != null) {
+                neighbourList.rebuildIndex();
+            }
+            neighbourList.checkedRemovals = 0;
+            compactedLists.add(neighbourList);
+        }
+        return compactedLists;
+    }
+
+    private ArrayList<NeighbourList> getIncomingList() {
+        if (this.incomingList == null) {
+            throw new UnsupportedOperationException("Incoming edges are not tracked!");
+        }
+        return this.incomingList;
+    }
+
+    private NeighbourList newNeighbourList() {
+        NeighbourList neighbourList = new NeighbourList();
+        neighbourList.checkedRemovals = this.removalCount;
+        if (this.edgeIndexThreshold == 0) {
+            neighbourList.rebuildIndex();
         }
-        return null;
+        return neighbourList;
     }
 }
@@ -0,0 +1,211 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// point to point Dijkstra searching forward from the start and backward from the end over incoming edges,
+// the representation must track incoming edges, positive weights assumed, not thread safe
+public class BidirectionalDijkstra<V> implements ShortestPathFinder<V> {
+    private final GraphRepresentation<V> representation;
+    // snapshot of the representation the current query runs on
+    private GraphRepresentation<V> graph;
+    private final SearchSide forward;
+    private final SearchSide backward;
+    private int settledCount;
+    private long relaxedCount;
+    private Instrumentation instrumentation;
+    // best meeting vertex of the last query, -1 when the searches did not meet
+    private int meetingVertex;
+    private double bestLength;
+
+    private class SearchSide {
+        final boolean isForward;
+        final IndexedDaryHeap heap;
+        double[] distances;
+        // towards the start for the forward side, towards the end for the backward side
+        int[] parents;
+        int[] reachedStamps;
+        int queryStamp;
+
+        SearchSide(boolean isForward, int bound) {
+            this.isForward = isForward;
+            this.heap = new IndexedDaryHeap(bound);
+            this.distances = new double[bound];
+            this.parents = new int[bound];
+            this.reachedStamps = new int[bound];
+        }
+
+        void reset(int bound, int rootIndex) {
+            if (bound > this.distances.length) {
+                int capacity = Math.max(bound, this.distances.length * 2);
+                this.heap.ensureCapacity(capacity);
+                this.distances = Arrays.copyOf(this.distances, capacity);
+                this.parents = Arrays.copyOf(this.parents, capacity);
+                this.reachedStamps = Arrays.copyOf(this.reachedStamps, capacity);
+            }
+            this.heap.clear();
+            this.queryStamp++;
+            if (this.queryStamp == 0) {
+                Arrays.fill(this.reachedStamps, 0);
+                this.queryStamp = 1;
+            }
+            this.reachedStamps[rootIndex] = this.queryStamp;
+            this.distances[rootIndex] = 0.0;
+            this.parents[rootIndex] = -1;
+            this.heap.insert(rootIndex, 0.0);
+        }
+
+        boolean isReached(int vertexIndex) {
+            return this.reachedStamps[vertexIndex] == this.queryStamp;
+        }
+
+        double minKey() {
+            return this.heap.isEmpty() ? Double.POSITIVE_INFINITY : this.heap.getKey(this.heap.peekMin());
+        }
+
+        int count(int vertexIndex) {
+            return this.isForward ? graph.neighbourCount(vertexIndex) : graph.parentCount(vertexIndex);
+        }
+
+        int target(int vertexIndex, int position) {
+            return this.isForward ? graph.getNeighbourIndex(vertexIndex, position) : graph.getParentIndex(vertexIndex, position);
+        }
+
+        double weight(int vertexIndex, int position) {
+            return this.isForward ? graph.getNeighbourWeight(vertexIndex, position) : graph.getParentWeight(vertexIndex, position);
+        }
+    }
+
+    public BidirectionalDijkstra(GraphRepresentation<V> graphRepresentation) {
+        if (!graphRepresentation.hasIncomingEdges()) {
+            throw new IllegalArgumentException("Representation does not track incoming edges!");
+        }
+        this.representation = graphRepresentation;
+        this.graph = graphRepresentation;
+        int bound = graphRepresentation.vertexIndexBound();
+        this.forward = new SearchSide(true, bound);
+        this.backward = new SearchSide(false, bound);
+    }
+
+    @Override
+    public Path<V> getShortestPath(V startVertex, V endVertex) {
+        QueryMetrics metrics = this.instrumentation == null ? null : new QueryMetrics("bidirectional-dijkstra");
+        long start = metrics == null ? 0 : System.nanoTime();
+        this.graph = this.representation.snapshot();
+        int startIndex = this.graph.getVertexIndex(startVertex);
+        int endIndex = this.graph.getVertexIndex(endVertex);
+        this.search(startIndex, endIndex);
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.SEARCH, start);
+        }
+        Path<V> path = this.buildPath(startIndex, endIndex);
+        if (metrics != null) {
+            this.finish(metrics, start);
+        }
+        return path;
+    }
+
+    @Override
+    public double getShortestPathLength(V startVertex, V endVertex) {
+        QueryMetrics metrics = this.instrumentation == null ? null : new QueryMetrics("bidirectional-dijkstra");
+        long start = metrics == null ? 0 : System.nanoTime();
+        this.graph = this.representation.snapshot();
+        this.search(this.graph.getVertexIndex(startVertex), this.graph.getVertexIndex(endVertex));
+        if (metrics != null) {
+            this.finish(metrics, metrics.endPhase(QueryMetrics.Phase.SEARCH, start));
+        }
+        return this.bestLength;
+    }
+
+    @Override
+    public int getSettledCount() {
+        return this.settledCount;
+    }
+
+    @Override
+    public void setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    // pushes are derived like in DijkstraEngine, every reached vertex of a side is settled or still queued there
+    private void finish(QueryMetrics metrics, long resultStart) {
+        metrics.endPhase(QueryMetrics.Phase.RESULT, resultStart);
+        metrics.verticesSettled = this.settledCount;
+        metrics.edgesRelaxed = this.relaxedCount;
+        metrics.heapPushes = this.settledCount + this.forward.heap.size() + this.backward.heap.size();
+        metrics.heapPops = this.settledCount;
+        this.instrumentation.queryFinished(metrics);
+    }
+
+    private Path<V> buildPath(int startIndex, int endIndex) {
+        if (this.meetingVertex < 0) {
+            return null;
+        }
+        if (startIndex == endIndex) {
+            return new Path<>(this.graph.getVertexAt(startIndex));
+        }
+
+        List<Edge<V>> edges = new ArrayList<>();
+        for (int current = this.meetingVertex; this.forward.parents[current] >= 0; current = this.forward.parents[current]) {
+            edges.add(this.edge(this.forward.parents[current], current));
+        }
+        Collections.reverse(edges);
+        for (int current = this.meetingVertex; this.backward.parents[current] >= 0; current = this.backward.parents[current]) {
+            edges.add(this.edge(current, this.backward.parents[current]));
+        }
+        return new Path<>(edges, this.bestLength);
+    }
+
+    private void search(int startIndex, int endIndex) {
+        int bound = this.graph.vertexIndexBound();
+        this.forward.reset(bound, startIndex);
+        this.backward.reset(bound, endIndex);
+        this.settledCount = 0;
+        this.relaxedCount = 0;
+        this.meetingVertex = startIndex == endIndex ? startIndex : -1;
+        this.bestLength = startIndex == endIndex ? 0.0 : Double.POSITIVE_INFINITY;
+
+        // no shorter path is possible once the two frontiers together reach past the best meeting point
+        while (this.forward.minKey() + this.backward.minKey() < this.bestLength) {
+            SearchSide side = this.forward.heap.size() <= this.backward.heap.size() ? this.forward : this.backward;
+            if (side.heap.isEmpty()) {
+                side = side == this.forward ? this.backward : this.forward;
+            }
+            this.settleNext(side, side == this.forward ? this.backward : this.forward);
+        }
+    }
+
+    private void settleNext(SearchSide side, SearchSide other) {
+        int vertex = side.heap.pollMin();
+        this.settledCount++;
+        double distance = side.distances[vertex];
+        int count = side.count(vertex);
+        this.relaxedCount += count;
+        for (int i = 0; i < count; i++) {
+            int neighbour = side.target(vertex, i);
+            double newDistance = distance + side.weight(vertex, i);
+            if (!side.isReached(neighbour)) {
+                side.reachedStamps[neighbour] = side.queryStamp;
+                side.distances[neighbour] = newDistance;
+                side.parents[neighbour] = vertex;
+                side.heap.insert(neighbour, newDistance);
+            } else if (newDistance < side.distances[neighbour] && side.heap.contains(neighbour)) {
+                side.distances[neighbour] = newDistance;
+                side.parents[neighbour] = vertex;
+                side.heap.decreaseKey(neighbour, newDistance);
+            } else {
+                continue;
+            }
+            if (other.isReached(neighbour) && newDistance + other.distances[neighbour] < this.bestLength) {
+                this.bestLength = newDistance + other.distances[neighbour];
+                this.meetingVertex = neighbour;
+            }
+        }
+    }
+
+    private Edge<V> edge(int fromIndex, int toIndex) {
+        V vertexFrom = this.graph.getVertexAt(fromIndex);
+        V vertexTo = this.graph.getVertexAt(toIndex);
+        return new Edge<>(vertexFrom, vertexTo, this.graph.getEdgeWeight(vertexFrom, vertexTo));
+    }
+}
@@ -0,0 +1,167 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+// frozen graph on disk, big endian, every section starts at a multiple of 8 bytes:
+//   header         HEADER_SIZE bytes, see the positions below
+//   offsets        long[vertexCount + 1], row i of targets and weights is offsets[i] .. offsets[i + 1] - 1
+//   targets        int[edgeCount], every row sorted
+//   weights        double[edgeCount]
+//   parentOffsets, sources, parentWeights     the same for incoming edges, only with INCOMING_EDGES set
+//   vertexIndex    long[vertexCount + 1], vertex i is vertexData[vertexIndex[i]] .. vertexData[vertexIndex[i + 1] - 1]
+//   vertexData     vertices encoded with a VertexCodec
+public final class BinaryGraphFormat {
+    static final int MAGIC = 0x47524146;
+    static final int VERSION = 1;
+    static final int INCOMING_EDGES = 1;
+    static final int HEADER_SIZE = 96;
+
+    // header positions
+    static final int FLAGS = 8;
+    static final int VERTEX_COUNT = 12;
+    static final int EDGE_COUNT = 16;
+    static final int OFFSETS = 24;
+    static final int TARGETS = 32;
+    static final int WEIGHTS = 40;
+    static final int PARENT_OFFSETS = 48;
+    static final int SOURCES = 56;
+    static final int PARENT_WEIGHTS = 64;
+    static final int VERTEX_INDEX = 72;
+    static final int VERTEX_DATA = 80;
+    static final int FILE_LENGTH = 88;
+
+    // a single mapping is limited to 2 GB, larger files are mapped in chunks of this size
+    static final long CHUNK_SIZE = 1L << 30;
+
+    private BinaryGraphFormat() {
+    }
+
+    public static <V> void write(GraphRepresentation<V> graph, File file, VertexCodec<V> codec) throws IOException {
+        write(graph, file, codec, true);
+    }
+
+    // without incoming edges the file is about half the size, but BidirectionalDijkstra and transposing need them
+    public static <V> void write(GraphRepresentation<V> graph, File file, VertexCodec<V> codec, boolean includeIncomingEdges) throws IOException {
+        CompressedSparseRowRepresentation<V> csr = graph instanceof CompressedSparseRowRepresentation
+                ? (CompressedSparseRowRepresentation<V>) graph
+                : new CompressedSparseRowRepresentation<>(graph);
+        int vertexCount = csr.vertexCount();
+        long edgeCount = csr.edgeCount();
+        byte[][] encodedVertices = new byte[vertexCount][];
+        long vertexDataLength = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            encodedVertices[i] = codec.encode(csr.getVertexAt(i));
+            vertexDataLength += encodedVertices[i].length;
+        }
+
+        long offsetsPosition = HEADER_SIZE;
+        long targetsPosition = offsetsPosition + 8L * (vertexCount + 1);
+        long weightsPosition = align(targetsPosition + 4L * edgeCount);
+        long position = weightsPosition + 8L * edgeCount;
+        long parentOffsetsPosition = 0;
+        long sourcesPosition = 0;
+        long parentWeightsPosition = 0;
+        if (includeIncomingEdges) {
+            parentOffsetsPosition = position;
+            sourcesPosition = parentOffsetsPosition + 8L * (vertexCount + 1);
+            parentWeightsPosition = align(sourcesPosition + 4L * edgeCount);
+            position = parentWeightsPosition + 8L * edgeCount;
+        }
+        long vertexIndexPosition = position;
+        long vertexDataPosition = vertexIndexPosition + 8L * (vertexCount + 1);
+        long fileLength = vertexDataPosition + vertexDataLength;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(includeIncomingEdges ? INCOMING_EDGES : 0);
+            out.writeInt(vertexCount);
+            out.writeLong(edgeCount);
+            out.writeLong(offsetsPosition);
+            out.writeLong(targetsPosition);
+            out.writeLong(weightsPosition);
+            out.writeLong(parentOffsetsPosition);
+            out.writeLong(sourcesPosition);
+            out.writeLong(parentWeightsPosition);
+            out.writeLong(vertexIndexPosition);
+            out.writeLong(vertexDataPosition);
+            out.writeLong(fileLength);
+
+            writeRows(out, csr, false);
+            if (includeIncomingEdges) {
+                writeRows(out, csr, true);
+            }
+
+            long vertexOffset = 0;
+            for (int i = 0; i < vertexCount; i++) {
+                out.writeLong(vertexOffset);
+                vertexOffset += encodedVertices[i].length;
+            }
+            out.writeLong(vertexOffset);
+            for (byte[] encodedVertex : encodedVertices) {
+                out.write(encodedVertex);
+            }
+        }
+    }
+
+    public static <V> MappedGraphRepresentation<V> open(File file, VertexCodec<V> codec) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            FileChannel channel = randomAccessFile.getChannel();
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not a graph file!");
+            }
+            // mappings stay valid after the channel is closed
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = i * CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, size - start));
+            }
+            if (chunks[0].getInt(0) != MAGIC) {
+                throw new IOException("Not a graph file!");
+            }
+            if (chunks[0].getInt(4) != VERSION) {
+                throw new IOException("Unsupported graph file version!");
+            }
+            if (chunks[0].getLong(FILE_LENGTH) != size) {
+                throw new IOException("Graph file is truncated!");
+            }
+            return new MappedGraphRepresentation<>(chunks, codec);
+        }
+    }
+
+    // rows are already sorted in a CompressedSparseRowRepresentation
+    private static <V> void writeRows(DataOutputStream out, CompressedSparseRowRepresentation<V> csr, boolean incoming) throws IOException {
+        int vertexCount = csr.vertexCount();
+        long offset = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            out.writeLong(offset);
+            offset += incoming ? csr.parentCount(i) : csr.neighbourCount(i);
+        }
+        out.writeLong(offset);
+        for (int i = 0; i < vertexCount; i++) {
+            int count = incoming ? csr.parentCount(i) : csr.neighbourCount(i);
+            for (int j = 0; j < count; j++) {
+                out.writeInt(incoming ? csr.getParentIndex(i, j) : csr.getNeighbourIndex(i, j));
+            }
+        }
+        if (offset % 2 != 0) {
+            out.writeInt(0);
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            int count = incoming ? csr.parentCount(i) : csr.neighbourCount(i);
+            for (int j = 0; j < count; j++) {
+                out.writeDouble(incoming ? csr.getParentWeight(i, j) : csr.getNeighbourWeight(i, j));
+            }
+        }
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
@@ -0,0 +1,70 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// levels of a breadth first search over vertex indexes, -1 for vertices that were not reached
+public class BreadthFirstSearchResult<V> {
+    private final GraphRepresentation<V> graph;
+    private final int[] levels;
+    private final BitSet reached;
+    // vertices of level l are levelVertices[levelOffsets[l]] .. levelVertices[levelOffsets[l + 1] - 1]
+    private final int[] levelOffsets;
+    private final int[] levelVertices;
+
+    BreadthFirstSearchResult(GraphRepresentation<V> graph, int[] levels, BitSet reached, int[] levelOffsets, int[] levelVertices) {
+        this.graph = graph;
+        this.levels = levels;
+        this.reached = reached;
+        this.levelOffsets = levelOffsets;
+        this.levelVertices = levelVertices;
+    }
+
+    public int getLevel(V vertex) {
+        return this.levels[this.graph.getVertexIndex(vertex)];
+    }
+
+    // indexed by vertex index, the backing array, not a copy
+    public int[] getLevels() {
+        return this.levels;
+    }
+
+    // bit i is set when the vertex with index i was reached, the backing set, not a copy
+    public BitSet getReached() {
+        return this.reached;
+    }
+
+    public int reachedCount() {
+        return this.levelVertices.length;
+    }
+
+    public int levelCount() {
+        return this.levelOffsets.length - 1;
+    }
+
+    public int[] getVertexIndexesAtLevel(int level) {
+        if (level < 0 || level >= this.levelCount()) {
+            return new int[0];
+        }
+        int[] vertexIndexes = new int[this.levelOffsets[level + 1] - this.levelOffsets[level]];
+        System.arraycopy(this.levelVertices, this.levelOffsets[level], vertexIndexes, 0, vertexIndexes.length);
+        return vertexIndexes;
+    }
+
+    public List<V> getVerticesAtLevel(int level) {
+        List<V> vertices = new ArrayList<>();
+        for (int vertexIndex : this.getVertexIndexesAtLevel(level)) {
+            vertices.add(this.graph.getVertexAt(vertexIndex));
+        }
+        return vertices;
+    }
+
+    public Set<V> getReachedVertices() {
+        Set<V> reachedVertices = new HashSet<>(this.levelVertices.length * 2);
+        for (int vertexIndex : this.levelVertices) {
+            reachedVertices.add(this.graph.getVertexAt(vertexIndex));
+        }
+        return reachedVertices;
+    }
+}
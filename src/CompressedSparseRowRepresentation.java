@@ -0,0 +1,307 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+// immutable, neighbours of vertex i are targets[offsets[i]] .. targets[offsets[i + 1] - 1], sorted by index,
+// parents are kept the same way in parentOffsets, sources and parentWeights
+public class CompressedSparseRowRepresentation<V> implements GraphRepresentation<V> {
+
+    private final Object[] vertices;
+    private final HashMap<V, Integer> vertexIndexes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] parentOffsets;
+    private final int[] sources;
+    private final double[] parentWeights;
+
+    public CompressedSparseRowRepresentation(GraphRepresentation<V> representation) {
+        // the vertex and edge lists have to come from the same version of a concurrent representation
+        representation = representation.snapshot();
+        List<V> vertexList = representation.getVertexList();
+        this.vertices = vertexList.toArray();
+        this.vertexIndexes = new HashMap<>(vertexList.size() * 2);
+        for (int i = 0; i < this.vertices.length; i++) {
+            this.vertexIndexes.put(vertexList.get(i), i);
+        }
+
+        List<Edge<V>> edges = representation.getEdgeList();
+        int[] edgeSources = new int[edges.size()];
+        int[] destinations = new int[edges.size()];
+        this.offsets = new int[this.vertices.length + 1];
+        for (int i = 0; i < edges.size(); i++) {
+            Edge<V> edge = edges.get(i);
+            int from = this.vertexIndexes.get(edge.vertexFrom);
+            int to = this.vertexIndexes.get(edge.vertexTo);
+            edgeSources[i] = from;
+            destinations[i] = to;
+            this.offsets[from + 1]++;
+        }
+        for (int i = 0; i < this.vertices.length; i++) {
+            this.offsets[i + 1] += this.offsets[i];
+        }
+
+        this.targets = new int[edges.size()];
+        this.weights = new double[edges.size()];
+        int[] fill = Arrays.copyOf(this.offsets, this.vertices.length);
+        for (int i = 0; i < edges.size(); i++) {
+            int position = fill[edgeSources[i]]++;
+            this.targets[position] = destinations[i];
+            this.weights[position] = edges.get(i).weight;
+        }
+        for (int i = 0; i < this.vertices.length; i++) {
+            sortRow(this.offsets[i], this.offsets[i + 1]);
+        }
+
+        this.parentOffsets = new int[this.vertices.length + 1];
+        this.sources = new int[this.targets.length];
+        this.parentWeights = new double[this.targets.length];
+        this.fillParents();
+    }
+
+    // rows already sorted by target without duplicates, the arrays are kept as they are
+    CompressedSparseRowRepresentation(Object[] vertices, int[] offsets, int[] targets, double[] weights) {
+        this.vertices = vertices;
+        this.vertexIndexes = new HashMap<>(vertices.length * 2);
+        for (int i = 0; i < vertices.length; i++) {
+            this.vertexIndexes.put(this.vertexAt(i), i);
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.parentOffsets = new int[vertices.length + 1];
+        this.sources = new int[targets.length];
+        this.parentWeights = new double[targets.length];
+        this.fillParents();
+    }
+
+    @Override
+    public void addVertex(V vertex) {
+        throw new UnsupportedOperationException("Representation is immutable!");
+    }
+
+    @Override
+    public void removeVertex(V vertex) {
+        throw new UnsupportedOperationException("Representation is immutable!");
+    }
+
+    @Override
+    public void addEdge(V vertexFrom, V vertexTo, double weight) {
+        throw new UnsupportedOperationException("Representation is immutable!");
+    }
+
+    @Override
+    public void removeEdge(V vertexFrom, V vertexTo) {
+        throw new UnsupportedOperationException("Representation is immutable!");
+    }
+
+    @Override
+    public List<V> getVertexList() {
+        List<V> vertexList = new ArrayList<>(this.vertices.length);
+        for (int i = 0; i < this.vertices.length; i++) {
+            vertexList.add(this.vertexAt(i));
+        }
+        return vertexList;
+    }
+
+    @Override
+    public List<V> getVertexNeighbours(V vertex) {
+        if (!this.hasVertex(vertex)) {
+            throw new IllegalArgumentException("Vertex does not exist!");
+        }
+        int vertexIndex = this.vertexIndexes.get(vertex);
+        List<V> neighbours = new ArrayList<>(this.offsets[vertexIndex + 1] - this.offsets[vertexIndex]);
+        for (int i = this.offsets[vertexIndex]; i < this.offsets[vertexIndex + 1]; i++) {
+            neighbours.add(this.vertexAt(this.targets[i]));
+        }
+        return neighbours;
+    }
+
+    @Override
+    public List<Edge<V>> getEdgeList() {
+        List<Edge<V>> edges = new ArrayList<>(this.targets.length);
+        for (int i = 0; i < this.vertices.length; i++) {
+            V vertexFrom = this.vertexAt(i);
+            for (int j = this.offsets[i]; j < this.offsets[i + 1]; j++) {
+                edges.add(new Edge<>(vertexFrom, this.vertexAt(this.targets[j]), this.weights[j]));
+            }
+        }
+        return edges;
+    }
+
+    @Override
+    public boolean hasVertex(V vertex) {
+        return this.vertexIndexes.get(vertex) != null;
+    }
+
+    @Override
+    public boolean hasEdge(V vertexFrom, V vertexTo) {
+        return this.getEdgePosition(vertexFrom, vertexTo) >= 0;
+    }
+
+    @Override
+    public double getEdgeWeight(V vertexFrom, V vertexTo) {
+        int position = this.getEdgePosition(vertexFrom, vertexTo);
+        if (position < 0) {
+            throw new IllegalArgumentException("Edge does not exist!");
+        }
+        return this.weights[position];
+    }
+
+    @Override
+    public void setEdgeWeight(V vertexFrom, V vertexTo, double weight) {
+        throw new UnsupportedOperationException("Representation is immutable!");
+    }
+
+    @Override
+    public int vertexCount() {
+        return this.vertices.length;
+    }
+
+    @Override
+    public int getVertexIndex(V vertex) {
+        Integer vertexIndex = this.vertexIndexes.get(vertex);
+        if (vertexIndex == null) {
+            throw new IllegalArgumentException("Vertex does not exist!");
+        }
+        return vertexIndex;
+    }
+
+    @Override
+    public V getVertexAt(int vertexIndex) {
+        return this.vertexAt(vertexIndex);
+    }
+
+    // the array only ever holds vertices of type V
+    @SuppressWarnings("unchecked")
+    private V vertexAt(int vertexIndex) {
+        return (V) this.vertices[vertexIndex];
+    }
+
+    @Override
+    public int vertexIndexBound() {
+        return this.vertices.length;
+    }
+
+    @Override
+    public int neighbourCount(int vertexIndex) {
+        return this.offsets[vertexIndex + 1] - this.offsets[vertexIndex];
+    }
+
+    @Override
+    public int getNeighbourIndex(int vertexIndex, int position) {
+        return this.targets[this.offsets[vertexIndex] + position];
+    }
+
+    @Override
+    public double getNeighbourWeight(int vertexIndex, int position) {
+        return this.weights[this.offsets[vertexIndex] + position];
+    }
+
+    @Override
+    public void forEachNeighbour(int vertexIndex, IndexNeighbourVisitor visitor) {
+        for (int i = this.offsets[vertexIndex]; i < this.offsets[vertexIndex + 1]; i++) {
+            visitor.visit(this.targets[i], this.weights[i]);
+        }
+    }
+
+    @Override
+    public boolean hasIncomingEdges() {
+        return true;
+    }
+
+    @Override
+    public int parentCount(int vertexIndex) {
+        return this.parentOffsets[vertexIndex + 1] - this.parentOffsets[vertexIndex];
+    }
+
+    @Override
+    public int getParentIndex(int vertexIndex, int position) {
+        return this.sources[this.parentOffsets[vertexIndex] + position];
+    }
+
+    @Override
+    public double getParentWeight(int vertexIndex, int position) {
+        return this.parentWeights[this.parentOffsets[vertexIndex] + position];
+    }
+
+    @Override
+    public long getModificationCount() {
+        return 0;
+    }
+
+    public int edgeCount() {
+        return this.targets.length;
+    }
+
+    @Override
+    public void print() {
+        System.out.println("Printing graph...");
+        for (int i = 0; i < this.vertices.length; i++) {
+            System.out.print(this.vertices[i] + " -> ");
+            for (int j = this.offsets[i]; j < this.offsets[i + 1]; j++) {
+                System.out.print("(vertex: " + this.vertices[this.targets[j]] + ", weight: " + this.weights[j] + "); ");
+            }
+            System.out.println();
+        }
+        System.out.println("End of graph");
+    }
+
+    private int getEdgePosition(V vertexFrom, V vertexTo) {
+        if (!this.hasVertex(vertexFrom) || !this.hasVertex(vertexTo)) {
+            throw new IllegalArgumentException("Not both vertices exist!");
+        }
+        int indexFrom = this.vertexIndexes.get(vertexFrom);
+        int indexTo = this.vertexIndexes.get(vertexTo);
+        int position = Arrays.binarySearch(this.targets, this.offsets[indexFrom], this.offsets[indexFrom + 1], indexTo);
+        return position >= 0 ? position : -1;
+    }
+
+    // scanning rows in order leaves every parent row sorted by source index
+    private void fillParents() {
+        for (int target : this.targets) {
+            this.parentOffsets[target + 1]++;
+        }
+        for (int i = 0; i < this.vertices.length; i++) {
+            this.parentOffsets[i + 1] += this.parentOffsets[i];
+        }
+        int[] fill = Arrays.copyOf(this.parentOffsets, this.vertices.length);
+        for (int i = 0; i < this.vertices.length; i++) {
+            for (int j = this.offsets[i]; j < this.offsets[i + 1]; j++) {
+                int position = fill[this.targets[j]]++;
+                this.sources[position] = i;
+                this.parentWeights[position] = this.weights[j];
+            }
+        }
+    }
+
+    // insertion sort for short rows, index sort for long ones
+    private void sortRow(int from, int to) {
+        if (to - from < 32) {
+            for (int i = from + 1; i < to; i++) {
+                int target = this.targets[i];
+                double weight = this.weights[i];
+                int j = i - 1;
+                while (j >= from && this.targets[j] > target) {
+                    this.targets[j + 1] = this.targets[j];
+                    this.weights[j + 1] = this.weights[j];
+                    j--;
+                }
+                this.targets[j + 1] = target;
+                this.weights[j + 1] = weight;
+            }
+            return;
+        }
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++) {
+            keys[i - from] = ((long) this.targets[i] << 32) | (i - from);
+        }
+        Arrays.sort(keys);
+        double[] rowWeights = Arrays.copyOfRange(this.weights, from, to);
+        for (int i = 0; i < keys.length; i++) {
+            this.targets[from + i] = (int) (keys[i] >>> 32);
+            this.weights[from + i] = rowWeights[(int) keys[i]];
+        }
+    }
+}
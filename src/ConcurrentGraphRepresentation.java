@@ -0,0 +1,705 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// thread safe, readers never lock: every change publishes a new immutable Snapshot through a volatile reference,
+// and a Snapshot never changes however the graph moves on. Rows are copied on write and kept in chunks of
+// CHUNK_SIZE, so a change copies the rows it touches, their chunks and the chunk table, never the whole graph.
+// Writers are serialized and a batch is published as one change. A vertex keeps its index for the life of the
+// representation, also after it is removed, so an index read from one snapshot means the same vertex in all of them.
+// The price is that indexes are never reclaimed: vertexIndexBound, the vertex map and the buffers of queries grow
+// with every distinct vertex ever added. Under churn of short lived vertices copy the graph into a new
+// ConcurrentGraphRepresentation now and then, the copy numbers the vertices that are left densely.
+// Queries running next to a writer should take a snapshot() first, single calls on this object each see the
+// latest snapshot but consecutive calls may see different ones. Graph and the shortest path finders do so per query.
+public class ConcurrentGraphRepresentation<V> implements GraphRepresentation<V> {
+    static final int CHUNK_BITS = 8;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int[] NO_INDEXES = new int[0];
+    private static final double[] NO_WEIGHTS = new double[0];
+
+    // every vertex ever added, shared by all snapshots, whether a vertex exists in one is decided by its rows.
+    // Never shrinks, see above.
+    private final ConcurrentHashMap<V, Integer> vertexIndexes = new ConcurrentHashMap<>();
+    private int nextIndex;
+    private volatile Snapshot<V> current;
+
+    // neighbours and parents sorted by index, never changed once published
+    private static final class Row {
+        final Object vertex;
+        final int[] targets;
+        final double[] weights;
+        final int[] sources;
+        final double[] parentWeights;
+
+        Row(Object vertex, int[] targets, double[] weights, int[] sources, double[] parentWeights) {
+            this.vertex = vertex;
+            this.targets = targets;
+            this.weights = weights;
+            this.sources = sources;
+            this.parentWeights = parentWeights;
+        }
+
+        Row withNeighbour(int target, double weight) {
+            int position = -Arrays.binarySearch(this.targets, target) - 1;
+            return new Row(this.vertex, insert(this.targets, position, target), insert(this.weights, position, weight),
+                    this.sources, this.parentWeights);
+        }
+
+        Row withoutNeighbour(int target) {
+            int position = Arrays.binarySearch(this.targets, target);
+            return new Row(this.vertex, remove(this.targets, position), remove(this.weights, position),
+                    this.sources, this.parentWeights);
+        }
+
+        Row withNeighbourWeight(int target, double weight) {
+            double[] weights = this.weights.clone();
+            weights[Arrays.binarySearch(this.targets, target)] = weight;
+            return new Row(this.vertex, this.targets, weights, this.sources, this.parentWeights);
+        }
+
+        Row withParent(int source, double weight) {
+            int position = -Arrays.binarySearch(this.sources, source) - 1;
+            return new Row(this.vertex, this.targets, this.weights,
+                    insert(this.sources, position, source), insert(this.parentWeights, position, weight));
+        }
+
+        Row withoutParent(int source) {
+            int position = Arrays.binarySearch(this.sources, source);
+            return new Row(this.vertex, this.targets, this.weights,
+                    remove(this.sources, position), remove(this.parentWeights, position));
+        }
+
+        Row withParentWeight(int source, double weight) {
+            double[] parentWeights = this.parentWeights.clone();
+            parentWeights[Arrays.binarySearch(this.sources, source)] = weight;
+            return new Row(this.vertex, this.targets, this.weights, this.sources, parentWeights);
+        }
+    }
+
+    public ConcurrentGraphRepresentation() {
+        this.current = new Snapshot<>(this.vertexIndexes, new Row[0][], 0, 0, 0, 0);
+    }
+
+    // copies the vertices and edges of representation
+    public ConcurrentGraphRepresentation(GraphRepresentation<V> representation) {
+        this();
+        CompressedSparseRowRepresentation<V> csr = new CompressedSparseRowRepresentation<>(representation);
+        Writer writer = new Writer();
+        for (int i = 0; i < csr.vertexCount(); i++) {
+            V vertex = csr.getVertexAt(i);
+            this.vertexIndexes.put(vertex, this.nextIndex++);
+            // rows of a CompressedSparseRowRepresentation are sorted already and indexes are taken over as they are
+            int neighbourCount = csr.neighbourCount(i);
+            int[] targets = new int[neighbourCount];
+            double[] weights = new double[neighbourCount];
+            for (int j = 0; j < neighbourCount; j++) {
+                targets[j] = csr.getNeighbourIndex(i, j);
+                weights[j] = csr.getNeighbourWeight(i, j);
+            }
+            int parentCount = csr.parentCount(i);
+            int[] sources = new int[parentCount];
+            double[] parentWeights = new double[parentCount];
+            for (int j = 0; j < parentCount; j++) {
+                sources[j] = csr.getParentIndex(i, j);
+                parentWeights[j] = csr.getParentWeight(i, j);
+            }
+            writer.setRow(i, new Row(vertex, targets, weights, sources, parentWeights));
+        }
+        writer.vertexCount = csr.vertexCount();
+        writer.edgeCount = csr.edgeCount();
+        writer.publish();
+    }
+
+    // consistent read-only view of the graph as it is now, O(1)
+    @Override
+    public Snapshot<V> snapshot() {
+        return this.current;
+    }
+
+    @Override
+    public synchronized void addVertex(V vertex) {
+        if (vertex == null) {
+            throw new IllegalArgumentException("Vertex must not be null!");
+        }
+        Writer writer = new Writer();
+        if (writer.indexOf(vertex) >= 0) {
+            throw new IllegalArgumentException("Vertex already exists!");
+        }
+        writer.addVertex(vertex);
+        writer.publish();
+    }
+
+    // O(degree), edges to and from the vertex go with it
+    @Override
+    public synchronized void removeVertex(V vertex) {
+        Writer writer = new Writer();
+        int index = writer.indexOf(vertex);
+        if (index < 0) {
+            return;
+        }
+        writer.removeVertex(index);
+        writer.publish();
+    }
+
+    @Override
+    public synchronized void addEdge(V vertexFrom, V vertexTo, double weight) {
+        Writer writer = new Writer();
+        int indexFrom = writer.indexOf(vertexFrom);
+        int indexTo = writer.indexOf(vertexTo);
+        if (indexFrom < 0 || indexTo < 0) {
+            throw new IllegalArgumentException("Not both vertices exist!");
+        }
+        if (writer.hasEdge(indexFrom, indexTo)) {
+            throw new IllegalArgumentException("Edge already exists!");
+        }
+        writer.addEdge(indexFrom, indexTo, weight);
+        writer.publish();
+    }
+
+    @Override
+    public synchronized void removeEdge(V vertexFrom, V vertexTo) {
+        Writer writer = new Writer();
+        int indexFrom = writer.indexOf(vertexFrom);
+        int indexTo = writer.indexOf(vertexTo);
+        if (indexFrom < 0 || indexTo < 0 || !writer.hasEdge(indexFrom, indexTo)) {
+            return;
+        }
+        writer.removeEdge(indexFrom, indexTo);
+        writer.publish();
+    }
+
+    @Override
+    public synchronized void setEdgeWeight(V vertexFrom, V vertexTo, double weight) {
+        Writer writer = new Writer();
+        int[] indexes = writer.edgeIndexes(vertexFrom, vertexTo);
+        writer.setEdgeWeight(indexes[0], indexes[1], weight);
+        writer.publish();
+    }
+
+    // reweights every edge and publishes them as one change, nothing is changed if one of the edges does not exist
+    public synchronized void setEdgeWeights(Collection<Edge<V>> edges) {
+        Writer writer = new Writer();
+        int[][] indexes = new int[edges.size()][];
+        int i = 0;
+        for (Edge<V> edge : edges) {
+            indexes[i++] = writer.edgeIndexes(edge.vertexFrom, edge.vertexTo);
+        }
+        i = 0;
+        for (Edge<V> edge : edges) {
+            writer.setEdgeWeight(indexes[i][0], indexes[i][1], edge.weight);
+            i++;
+        }
+        writer.publish();
+    }
+
+    // readers see either none or all of the batch
+    @Override
+    public synchronized void applyBatch(GraphBatch<V> batch) {
+        batch.validate(this.current);
+        Writer writer = new Writer();
+        for (Edge<V> edge : batch.getEdgesToRemove()) {
+            int indexFrom = writer.indexOf(edge.vertexFrom);
+            int indexTo = writer.indexOf(edge.vertexTo);
+            if (indexFrom >= 0 && indexTo >= 0 && writer.hasEdge(indexFrom, indexTo)) {
+                writer.removeEdge(indexFrom, indexTo);
+            }
+        }
+        for (V vertex : batch.getVerticesToRemove()) {
+            int index = writer.indexOf(vertex);
+            if (index >= 0) {
+                writer.removeVertex(index);
+            }
+        }
+        for (V vertex : batch.getVerticesToAdd()) {
+            writer.addVertex(vertex);
+        }
+        for (Edge<V> edge : batch.getEdgesToAdd()) {
+            writer.addEdge(writer.indexOf(edge.vertexFrom), writer.indexOf(edge.vertexTo), edge.weight);
+        }
+        writer.publish();
+    }
+
+    @Override
+    public List<V> getVertexList() {
+        return this.current.getVertexList();
+    }
+
+    @Override
+    public List<V> getVertexNeighbours(V vertex) {
+        return this.current.getVertexNeighbours(vertex);
+    }
+
+    @Override
+    public List<Edge<V>> getEdgeList() {
+        return this.current.getEdgeList();
+    }
+
+    @Override
+    public boolean hasVertex(V vertex) {
+        return this.current.hasVertex(vertex);
+    }
+
+    @Override
+    public boolean hasEdge(V vertexFrom, V vertexTo) {
+        return this.current.hasEdge(vertexFrom, vertexTo);
+    }
+
+    @Override
+    public double getEdgeWeight(V vertexFrom, V vertexTo) {
+        return this.current.getEdgeWeight(vertexFrom, vertexTo);
+    }
+
+    @Override
+    public int vertexCount() {
+        return this.current.vertexCount();
+    }
+
+    public long edgeCount() {
+        return this.current.edgeCount();
+    }
+
+    @Override
+    public long getModificationCount() {
+        return this.current.getModificationCount();
+    }
+
+    @Override
+    public int getVertexIndex(V vertex) {
+        return this.current.getVertexIndex(vertex);
+    }
+
+    @Override
+    public V getVertexAt(int vertexIndex) {
+        return this.current.getVertexAt(vertexIndex);
+    }
+
+    @Override
+    public int vertexIndexBound() {
+        return this.current.vertexIndexBound();
+    }
+
+    @Override
+    public int neighbourCount(int vertexIndex) {
+        return this.current.neighbourCount(vertexIndex);
+    }
+
+    @Override
+    public int getNeighbourIndex(int vertexIndex, int position) {
+        return this.current.getNeighbourIndex(vertexIndex, position);
+    }
+
+    @Override
+    public double getNeighbourWeight(int vertexIndex, int position) {
+        return this.current.getNeighbourWeight(vertexIndex, position);
+    }
+
+    @Override
+    public void forEachNeighbour(int vertexIndex, IndexNeighbourVisitor visitor) {
+        this.current.forEachNeighbour(vertexIndex, visitor);
+    }
+
+    @Override
+    public boolean hasIncomingEdges() {
+        return true;
+    }
+
+    @Override
+    public int parentCount(int vertexIndex) {
+        return this.current.parentCount(vertexIndex);
+    }
+
+    @Override
+    public int getParentIndex(int vertexIndex, int position) {
+        return this.current.getParentIndex(vertexIndex, position);
+    }
+
+    @Override
+    public double getParentWeight(int vertexIndex, int position) {
+        return this.current.getParentWeight(vertexIndex, position);
+    }
+
+    @Override
+    public void print() {
+        this.current.print();
+    }
+
+    // collects the changes of one call on copies of the rows and chunks it touches, only used under the lock
+    private final class Writer {
+        private final Snapshot<V> base;
+        private Row[][] chunks;
+        private final BitSet copiedChunks = new BitSet();
+        int vertexCount;
+        long edgeCount;
+
+        Writer() {
+            this.base = ConcurrentGraphRepresentation.this.current;
+            this.chunks = this.base.chunks.clone();
+            this.vertexCount = this.base.vertexCount;
+            this.edgeCount = this.base.edgeCount;
+        }
+
+        int indexOf(V vertex) {
+            Integer index = ConcurrentGraphRepresentation.this.vertexIndexes.get(vertex);
+            return index == null || this.row(index) == null ? -1 : index;
+        }
+
+        int[] edgeIndexes(V vertexFrom, V vertexTo) {
+            int indexFrom = this.indexOf(vertexFrom);
+            int indexTo = this.indexOf(vertexTo);
+            if (indexFrom < 0 || indexTo < 0) {
+                throw new IllegalArgumentException("Not both vertices exist!");
+            }
+            if (!this.hasEdge(indexFrom, indexTo)) {
+                throw new IllegalArgumentException("Edge does not exist!");
+            }
+            return new int[]{indexFrom, indexTo};
+        }
+
+        Row row(int index) {
+            int chunk = index >>> CHUNK_BITS;
+            return chunk < this.chunks.length && this.chunks[chunk] != null ? this.chunks[chunk][index & (CHUNK_SIZE - 1)] : null;
+        }
+
+        void setRow(int index, Row row) {
+            int chunk = index >>> CHUNK_BITS;
+            if (chunk >= this.chunks.length) {
+                this.chunks = Arrays.copyOf(this.chunks, Math.max(chunk + 1, this.chunks.length * 2));
+            }
+            if (!this.copiedChunks.get(chunk)) {
+                this.chunks[chunk] = this.chunks[chunk] == null ? new Row[CHUNK_SIZE] : this.chunks[chunk].clone();
+                this.copiedChunks.set(chunk);
+            }
+            this.chunks[chunk][index & (CHUNK_SIZE - 1)] = row;
+        }
+
+        boolean hasEdge(int indexFrom, int indexTo) {
+            return Arrays.binarySearch(this.row(indexFrom).targets, indexTo) >= 0;
+        }
+
+        // a removed vertex that comes back gets its old index
+        void addVertex(V vertex) {
+            Integer index = ConcurrentGraphRepresentation.this.vertexIndexes.get(vertex);
+            if (index == null) {
+                index = ConcurrentGraphRepresentation.this.nextIndex++;
+                ConcurrentGraphRepresentation.this.vertexIndexes.put(vertex, index);
+            }
+            this.setRow(index, new Row(vertex, NO_INDEXES, NO_WEIGHTS, NO_INDEXES, NO_WEIGHTS));
+            this.vertexCount++;
+        }
+
+        void removeVertex(int index) {
+            Row row = this.row(index);
+            for (int target : row.targets) {
+                if (target != index) {
+                    this.setRow(target, this.row(target).withoutParent(index));
+                    this.edgeCount--;
+                }
+            }
+            for (int source : row.sources) {
+                if (source != index) {
+                    this.setRow(source, this.row(source).withoutNeighbour(index));
+                    this.edgeCount--;
+                }
+            }
+            if (Arrays.binarySearch(row.targets, index) >= 0) {
+                this.edgeCount--;
+            }
+            this.setRow(index, null);
+            this.vertexCount--;
+        }
+
+        // the source row is written before the target row is read, so self loops end up in both lists
+        void addEdge(int indexFrom, int indexTo, double weight) {
+            this.setRow(indexFrom, this.row(indexFrom).withNeighbour(indexTo, weight));
+            this.setRow(indexTo, this.row(indexTo).withParent(indexFrom, weight));
+            this.edgeCount++;
+        }
+
+        void removeEdge(int indexFrom, int indexTo) {
+            this.setRow(indexFrom, this.row(indexFrom).withoutNeighbour(indexTo));
+            this.setRow(indexTo, this.row(indexTo).withoutParent(indexFrom));
+            this.edgeCount--;
+        }
+
+        void setEdgeWeight(int indexFrom, int indexTo, double weight) {
+            this.setRow(indexFrom, this.row(indexFrom).withNeighbourWeight(indexTo, weight));
+            this.setRow(indexTo, this.row(indexTo).withParentWeight(indexFrom, weight));
+        }
+
+        // the volatile write makes every row written before it visible to readers of the new snapshot
+        void publish() {
+            ConcurrentGraphRepresentation.this.current = new Snapshot<>(ConcurrentGraphRepresentation.this.vertexIndexes,
+                    this.chunks, ConcurrentGraphRepresentation.this.nextIndex, this.vertexCount, this.edgeCount,
+                    this.base.modificationCount + 1);
+        }
+    }
+
+    // the graph at one point in time, immutable and safe to share between threads
+    public static final class Snapshot<V> implements GraphRepresentation<V> {
+        private final Map<V, Integer> vertexIndexes;
+        private final Row[][] chunks;
+        private final int bound;
+        private final int vertexCount;
+        private final long edgeCount;
+        private final long modificationCount;
+
+        private Snapshot(Map<V, Integer> vertexIndexes, Row[][] chunks, int bound, int vertexCount, long edgeCount, long modificationCount) {
+            this.vertexIndexes = vertexIndexes;
+            this.chunks = chunks;
+            this.bound = bound;
+            this.vertexCount = vertexCount;
+            this.edgeCount = edgeCount;
+            this.modificationCount = modificationCount;
+        }
+
+        @Override
+        public void addVertex(V vertex) {
+            throw new UnsupportedOperationException("Representation is immutable!");
+        }
+
+        @Override
+        public void removeVertex(V vertex) {
+            throw new UnsupportedOperationException("Representation is immutable!");
+        }
+
+        @Override
+        public void addEdge(V vertexFrom, V vertexTo, double weight) {
+            throw new UnsupportedOperationException("Representation is immutable!");
+        }
+
+        @Override
+        public void removeEdge(V vertexFrom, V vertexTo) {
+            throw new UnsupportedOperationException("Representation is immutable!");
+        }
+
+        @Override
+        public void setEdgeWeight(V vertexFrom, V vertexTo, double weight) {
+            throw new UnsupportedOperationException("Representation is immutable!");
+        }
+
+        @Override
+        public void applyBatch(GraphBatch<V> batch) {
+            throw new UnsupportedOperationException("Representation is immutable!");
+        }
+
+        @Override
+        public List<V> getVertexList() {
+            List<V> vertexList = new ArrayList<>(this.vertexCount);
+            for (int i = 0; i < this.bound; i++) {
+                V vertex = this.vertexAt(i);
+                if (vertex != null) {
+                    vertexList.add(vertex);
+                }
+            }
+            return vertexList;
+        }
+
+        @Override
+        public List<V> getVertexNeighbours(V vertex) {
+            Row row = this.row(this.getVertexIndex(vertex));
+            List<V> neighbours = new ArrayList<>(row.targets.length);
+            for (int target : row.targets) {
+                neighbours.add(this.vertexAt(target));
+            }
+            return neighbours;
+        }
+
+        @Override
+        public List<Edge<V>> getEdgeList() {
+            List<Edge<V>> edges = new ArrayList<>((int) Math.min(Integer.MAX_VALUE - 8, this.edgeCount));
+            for (int i = 0; i < this.bound; i++) {
+                Row row = this.row(i);
+                if (row == null) {
+                    continue;
+                }
+                V vertexFrom = this.vertexAt(i);
+                for (int j = 0; j < row.targets.length; j++) {
+                    edges.add(new Edge<>(vertexFrom, this.vertexAt(row.targets[j]), row.weights[j]));
+                }
+            }
+            return edges;
+        }
+
+        @Override
+        public boolean hasVertex(V vertex) {
+            return this.indexOf(vertex) >= 0;
+        }
+
+        @Override
+        public boolean hasEdge(V vertexFrom, V vertexTo) {
+            return this.getEdgePosition(vertexFrom, vertexTo) >= 0;
+        }
+
+        @Override
+        public double getEdgeWeight(V vertexFrom, V vertexTo) {
+            int position = this.getEdgePosition(vertexFrom, vertexTo);
+            if (position < 0) {
+                throw new IllegalArgumentException("Edge does not exist!");
+            }
+            return this.row(this.indexOf(vertexFrom)).weights[position];
+        }
+
+        @Override
+        public int vertexCount() {
+            return this.vertexCount;
+        }
+
+        public long edgeCount() {
+            return this.edgeCount;
+        }
+
+        @Override
+        public long getModificationCount() {
+            return this.modificationCount;
+        }
+
+        @Override
+        public int getVertexIndex(V vertex) {
+            int vertexIndex = this.indexOf(vertex);
+            if (vertexIndex < 0) {
+                throw new IllegalArgumentException("Vertex does not exist!");
+            }
+            return vertexIndex;
+        }
+
+        @Override
+        public V getVertexAt(int vertexIndex) {
+            return this.vertexAt(vertexIndex);
+        }
+
+        // rows only ever hold vertices of type V
+        @SuppressWarnings("unchecked")
+        private V vertexAt(int vertexIndex) {
+            Row row = this.row(vertexIndex);
+            return row == null ? null : (V) row.vertex;
+        }
+
+        @Override
+        public int vertexIndexBound() {
+            return this.bound;
+        }
+
+        @Override
+        public int neighbourCount(int vertexIndex) {
+            Row row = this.row(vertexIndex);
+            return row == null ? 0 : row.targets.length;
+        }
+
+        @Override
+        public int getNeighbourIndex(int vertexIndex, int position) {
+            return this.row(vertexIndex).targets[position];
+        }
+
+        @Override
+        public double getNeighbourWeight(int vertexIndex, int position) {
+            return this.row(vertexIndex).weights[position];
+        }
+
+        @Override
+        public void forEachNeighbour(int vertexIndex, IndexNeighbourVisitor visitor) {
+            Row row = this.row(vertexIndex);
+            if (row == null) {
+                return;
+            }
+            for (int i = 0; i < row.targets.length; i++) {
+                visitor.visit(row.targets[i], row.weights[i]);
+            }
+        }
+
+        @Override
+        public boolean hasIncomingEdges() {
+            return true;
+        }
+
+        @Override
+        public int parentCount(int vertexIndex) {
+            Row row = this.row(vertexIndex);
+            return row == null ? 0 : row.sources.length;
+        }
+
+        @Override
+        public int getParentIndex(int vertexIndex, int position) {
+            return this.row(vertexIndex).sources[position];
+        }
+
+        @Override
+        public double getParentWeight(int vertexIndex, int position) {
+            return this.row(vertexIndex).parentWeights[position];
+        }
+
+        @Override
+        public void print() {
+            System.out.println("Printing graph...");
+            for (int i = 0; i < this.bound; i++) {
+                Row row = this.row(i);
+                if (row == null) {
+                    continue;
+                }
+                System.out.print(row.vertex + " -> ");
+                for (int j = 0; j < row.targets.length; j++) {
+                    System.out.print("(vertex: " + this.row(row.targets[j]).vertex + ", weight: " + row.weights[j] + "); ");
+                }
+                System.out.println();
+            }
+            System.out.println("End of graph");
+        }
+
+        // vertices added after this snapshot have indexes at or above its bound
+        private int indexOf(V vertex) {
+            Integer index = this.vertexIndexes.get(vertex);
+            if (index == null || index >= this.bound) {
+                return -1;
+            }
+            return this.row(index) == null ? -1 : index;
+        }
+
+        private Row row(int index) {
+            return this.chunks[index >>> CHUNK_BITS][index & (CHUNK_SIZE - 1)];
+        }
+
+        private int getEdgePosition(V vertexFrom, V vertexTo) {
+            int indexFrom = this.indexOf(vertexFrom);
+            int indexTo = this.indexOf(vertexTo);
+            if (indexFrom < 0 || indexTo < 0) {
+                throw new IllegalArgumentException("Not both vertices exist!");
+            }
+            int position = Arrays.binarySearch(this.row(indexFrom).targets, indexTo);
+            return position >= 0 ? position : -1;
+        }
+    }
+
+    private static int[] insert(int[] values, int position, int value) {
+        int[] copy = new int[values.length + 1];
+        System.arraycopy(values, 0, copy, 0, position);
+        copy[position] = value;
+        System.arraycopy(values, position, copy, position + 1, values.length - position);
+        return copy;
+    }
+
+    private static double[] insert(double[] values, int position, double value) {
+        double[] copy = new double[values.length + 1];
+        System.arraycopy(values, 0, copy, 0, position);
+        copy[position] = value;
+        System.arraycopy(values, position, copy, position + 1, values.length - position);
+        return copy;
+    }
+
+    private static int[] remove(int[] values, int position) {
+        int[] copy = new int[values.length - 1];
+        System.arraycopy(values, 0, copy, 0, position);
+        System.arraycopy(values, position + 1, copy, position, values.length - position - 1);
+        return copy;
+    }
+
+    private static double[] remove(double[] values, int position) {
+        double[] copy = new double[values.length - 1];
+        System.arraycopy(values, 0, copy, 0, position);
+        System.arraycopy(values, position + 1, copy, position, values.length - position - 1);
+        return copy;
+    }
+}
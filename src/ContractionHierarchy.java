@@ -0,0 +1,309 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+// preprocessed copy of a graph for fast point to point queries with ContractionHierarchySearch, later modifications
+// of the representation are not seen. Vertices are numbered by the order they were contracted in, so the upward
+// edges of vertex i lead to vertices above i: forward edges i -> target for the search from the start, backward
+// edges source -> i for the search from the end. A shortcut stands for the two edges through its middle vertex,
+// which is below both its ends. Immutable and thread safe, non-negative weights required.
+//
+// saved files are big endian:
+//   header         HEADER_SIZE bytes: MAGIC, VERSION, vertexCount, forward and backward edge counts, vertex data length
+//   forward        int[vertexCount + 1] offsets, int[] targets, double[] weights, int[] middles (-1 for graph edges)
+//   backward       the same with sources
+//   vertexLengths  int[vertexCount], the length of each encoded vertex
+//   vertexData     vertices encoded with a VertexCodec
+public class ContractionHierarchy<V> {
+    static final int MAGIC = 0x43484945;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    // arrays are written and read through a buffer of this size
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Object[] vertices;
+    private final HashMap<V, Integer> vertexIndexes;
+    final int[] forwardOffsets;
+    final int[] forwardTargets;
+    final double[] forwardWeights;
+    final int[] forwardMiddles;
+    final int[] backwardOffsets;
+    final int[] backwardSources;
+    final double[] backwardWeights;
+    final int[] backwardMiddles;
+
+    // contracts every vertex, around a minute per million edges on grid-like graphs, save the result to skip this
+    public ContractionHierarchy(GraphRepresentation<V> graphRepresentation) {
+        this(new ContractionHierarchyBuilder<>(graphRepresentation).build());
+    }
+
+    private ContractionHierarchy(ContractionHierarchy<V> built) {
+        this.vertices = built.vertices;
+        this.vertexIndexes = built.vertexIndexes;
+        this.forwardOffsets = built.forwardOffsets;
+        this.forwardTargets = built.forwardTargets;
+        this.forwardWeights = built.forwardWeights;
+        this.forwardMiddles = built.forwardMiddles;
+        this.backwardOffsets = built.backwardOffsets;
+        this.backwardSources = built.backwardSources;
+        this.backwardWeights = built.backwardWeights;
+        this.backwardMiddles = built.backwardMiddles;
+    }
+
+    ContractionHierarchy(Object[] vertices, int[] forwardOffsets, int[] forwardTargets, double[] forwardWeights, int[] forwardMiddles,
+                         int[] backwardOffsets, int[] backwardSources, double[] backwardWeights, int[] backwardMiddles) {
+        this.vertices = vertices;
+        this.vertexIndexes = new HashMap<>(vertices.length * 2);
+        for (int i = 0; i < vertices.length; i++) {
+            this.vertexIndexes.put(this.vertexAt(i), i);
+        }
+        this.forwardOffsets = forwardOffsets;
+        this.forwardTargets = forwardTargets;
+        this.forwardWeights = forwardWeights;
+        this.forwardMiddles = forwardMiddles;
+        this.backwardOffsets = backwardOffsets;
+        this.backwardSources = backwardSources;
+        this.backwardWeights = backwardWeights;
+        this.backwardMiddles = backwardMiddles;
+    }
+
+    public int vertexCount() {
+        return this.vertices.length;
+    }
+
+    // upward edges in both directions, shortcuts included
+    public int edgeCount() {
+        return this.forwardTargets.length + this.backwardSources.length;
+    }
+
+    public int shortcutCount() {
+        int shortcuts = 0;
+        for (int middle : this.forwardMiddles) {
+            shortcuts += middle >= 0 ? 1 : 0;
+        }
+        for (int middle : this.backwardMiddles) {
+            shortcuts += middle >= 0 ? 1 : 0;
+        }
+        return shortcuts;
+    }
+
+    // also the contraction rank of the vertex
+    public int getVertexIndex(V vertex) {
+        Integer vertexIndex = this.vertexIndexes.get(vertex);
+        if (vertexIndex == null) {
+            throw new IllegalArgumentException("Vertex does not exist!");
+        }
+        return vertexIndex;
+    }
+
+    public V getVertexAt(int vertexIndex) {
+        return this.vertexAt(vertexIndex);
+    }
+
+    // the array only ever holds vertices of type V
+    @SuppressWarnings("unchecked")
+    private V vertexAt(int vertexIndex) {
+        return (V) this.vertices[vertexIndex];
+    }
+
+    // appends the edges of the graph the edge from -> to stands for, in path order
+    void unpack(int from, int to, double weight, int middle, List<Edge<V>> edges) {
+        // pending edges, the top one comes first in the path
+        int[] froms = new int[16];
+        int[] tos = new int[16];
+        int[] middles = new int[16];
+        double[] weights = new double[16];
+        froms[0] = from;
+        tos[0] = to;
+        middles[0] = middle;
+        weights[0] = weight;
+        int size = 1;
+        while (size > 0) {
+            size--;
+            if (middles[size] < 0) {
+                edges.add(new Edge<>(this.getVertexAt(froms[size]), this.getVertexAt(tos[size]), weights[size]));
+                continue;
+            }
+            if (size + 2 > froms.length) {
+                froms = Arrays.copyOf(froms, froms.length * 2);
+                tos = Arrays.copyOf(tos, tos.length * 2);
+                middles = Arrays.copyOf(middles, middles.length * 2);
+                weights = Arrays.copyOf(weights, weights.length * 2);
+            }
+            int shortcutFrom = froms[size];
+            int shortcutTo = tos[size];
+            int shortcutMiddle = middles[size];
+            // the middle is below both ends: middle -> to is a forward edge of the middle, from -> middle a backward one
+            int second = Arrays.binarySearch(this.forwardTargets, this.forwardOffsets[shortcutMiddle],
+                    this.forwardOffsets[shortcutMiddle + 1], shortcutTo);
+            int first = Arrays.binarySearch(this.backwardSources, this.backwardOffsets[shortcutMiddle],
+                    this.backwardOffsets[shortcutMiddle + 1], shortcutFrom);
+            froms[size] = shortcutMiddle;
+            tos[size] = shortcutTo;
+            middles[size] = this.forwardMiddles[second];
+            weights[size] = this.forwardWeights[second];
+            size++;
+            froms[size] = shortcutFrom;
+            tos[size] = shortcutMiddle;
+            middles[size] = this.backwardMiddles[first];
+            weights[size] = this.backwardWeights[first];
+            size++;
+        }
+    }
+
+    public void save(File file, VertexCodec<V> codec) throws IOException {
+        byte[][] encodedVertices = new byte[this.vertices.length][];
+        int[] vertexLengths = new int[this.vertices.length];
+        long vertexDataLength = 0;
+        for (int i = 0; i < this.vertices.length; i++) {
+            encodedVertices[i] = codec.encode(this.getVertexAt(i));
+            vertexLengths[i] = encodedVertices[i].length;
+            vertexDataLength += vertexLengths[i];
+        }
+        if (vertexDataLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Encoded vertices exceed 2 GB!");
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(this.vertices.length)
+                    .putInt(this.forwardTargets.length).putInt(this.backwardSources.length)
+                    .putLong(vertexDataLength).putInt(0);
+            buffer.flip();
+            writeFully(channel, buffer);
+
+            writeInts(channel, buffer, this.forwardOffsets);
+            writeInts(channel, buffer, this.forwardTargets);
+            writeDoubles(channel, buffer, this.forwardWeights);
+            writeInts(channel, buffer, this.forwardMiddles);
+            writeInts(channel, buffer, this.backwardOffsets);
+            writeInts(channel, buffer, this.backwardSources);
+            writeDoubles(channel, buffer, this.backwardWeights);
+            writeInts(channel, buffer, this.backwardMiddles);
+            writeInts(channel, buffer, vertexLengths);
+            for (byte[] encodedVertex : encodedVertices) {
+                writeFully(channel, ByteBuffer.wrap(encodedVertex));
+            }
+        }
+    }
+
+    // reads a file written by save, much faster than contracting the graph again
+    public static <V> ContractionHierarchy<V> load(File file, VertexCodec<V> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.limit(HEADER_SIZE);
+            readFully(channel, buffer);
+            buffer.flip();
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a contraction hierarchy file!");
+            }
+            if (buffer.getInt() != VERSION) {
+                throw new IOException("Unsupported contraction hierarchy file version!");
+            }
+            int vertexCount = buffer.getInt();
+            int forwardEdgeCount = buffer.getInt();
+            int backwardEdgeCount = buffer.getInt();
+            long vertexDataLength = buffer.getLong();
+            long expectedLength = HEADER_SIZE + 4L * (2 * (vertexCount + 1) + vertexCount)
+                    + 16L * forwardEdgeCount + 16L * backwardEdgeCount + vertexDataLength;
+            if (channel.size() != expectedLength) {
+                throw new IOException("Contraction hierarchy file is truncated!");
+            }
+
+            int[] forwardOffsets = readInts(channel, buffer, vertexCount + 1);
+            int[] forwardTargets = readInts(channel, buffer, forwardEdgeCount);
+            double[] forwardWeights = readDoubles(channel, buffer, forwardEdgeCount);
+            int[] forwardMiddles = readInts(channel, buffer, forwardEdgeCount);
+            int[] backwardOffsets = readInts(channel, buffer, vertexCount + 1);
+            int[] backwardSources = readInts(channel, buffer, backwardEdgeCount);
+            double[] backwardWeights = readDoubles(channel, buffer, backwardEdgeCount);
+            int[] backwardMiddles = readInts(channel, buffer, backwardEdgeCount);
+            int[] vertexLengths = readInts(channel, buffer, vertexCount);
+            ByteBuffer vertexData = ByteBuffer.allocate((int) vertexDataLength);
+            readFully(channel, vertexData);
+
+            Object[] vertices = new Object[vertexCount];
+            int position = 0;
+            for (int i = 0; i < vertexCount; i++) {
+                vertices[i] = codec.decode(ByteBuffer.wrap(vertexData.array(), position, vertexLengths[i]));
+                position += vertexLengths[i];
+            }
+            return new ContractionHierarchy<>(vertices, forwardOffsets, forwardTargets, forwardWeights, forwardMiddles,
+                    backwardOffsets, backwardSources, backwardWeights, backwardMiddles);
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        int done = 0;
+        while (done < values.length) {
+            int count = Math.min(values.length - done, BUFFER_SIZE / Integer.BYTES);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, done, count);
+            buffer.limit(count * Integer.BYTES);
+            writeFully(channel, buffer);
+            done += count;
+        }
+    }
+
+    private static void writeDoubles(FileChannel channel, ByteBuffer buffer, double[] values) throws IOException {
+        int done = 0;
+        while (done < values.length) {
+            int count = Math.min(values.length - done, BUFFER_SIZE / Double.BYTES);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(values, done, count);
+            buffer.limit(count * Double.BYTES);
+            writeFully(channel, buffer);
+            done += count;
+        }
+    }
+
+    private static int[] readInts(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+        int[] values = new int[length];
+        int done = 0;
+        while (done < length) {
+            int count = Math.min(length - done, BUFFER_SIZE / Integer.BYTES);
+            buffer.clear();
+            buffer.limit(count * Integer.BYTES);
+            readFully(channel, buffer);
+            buffer.flip();
+            buffer.asIntBuffer().get(values, done, count);
+            done += count;
+        }
+        return values;
+    }
+
+    private static double[] readDoubles(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+        double[] values = new double[length];
+        int done = 0;
+        while (done < length) {
+            int count = Math.min(length - done, BUFFER_SIZE / Double.BYTES);
+            buffer.clear();
+            buffer.limit(count * Double.BYTES);
+            readFully(channel, buffer);
+            buffer.flip();
+            buffer.asDoubleBuffer().get(values, done, count);
+            done += count;
+        }
+        return values;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Contraction hierarchy file is truncated!");
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+import java.util.Arrays;
+
+// contracts the vertices of a representation one by one, least important first, and records the edges each vertex
+// has to the vertices contracted after it. Importance is twice the edge difference (shortcuts added minus edges
+// removed), plus the number of neighbours already contracted and the level, one above the highest contracted
+// neighbour, both of which spread the contraction evenly over the graph. Priorities are updated lazily: a vertex
+// whose priority grew since it was queued is queued again when polled, neighbours of a contracted vertex are not
+// simulated again, which costs a few percent more shortcuts but cuts the preprocessing time several times.
+final class ContractionHierarchyBuilder<V> {
+    // a witness search gives up after settling this many vertices and the shortcut is added, which is never wrong,
+    // only a waste of an edge. Estimating the priority gets by with a shorter search.
+    static final int MAX_WITNESS_SETTLED = 500;
+    static final int SIMULATED_WITNESS_SETTLED = 50;
+
+    private final Object[] vertices;
+    // edges between vertices not contracted yet, the rows of a contracted vertex stay as they were at its contraction
+    private final Row[] outgoing;
+    private final Row[] incoming;
+    private final boolean[] contracted;
+    private final int[] contractedNeighbours;
+    private final int[] ranks;
+    private final int[] levels;
+
+    // witness search buffers
+    private final IndexedDaryHeap witnessHeap;
+    private final double[] witnessDistances;
+    private final int[] reachedStamps;
+    private final int[] targetStamps;
+    private int queryStamp;
+
+    // edges of one vertex sorted by nothing, removal swaps in the last edge
+    private static final class Row {
+        int[] vertices = new int[4];
+        double[] weights = new double[4];
+        // contracted vertex a shortcut bypasses, -1 for edges of the graph
+        int[] middles = new int[4];
+        int size;
+
+        int indexOf(int vertex) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.vertices[i] == vertex) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void add(int vertex, double weight, int middle) {
+            if (this.size == this.vertices.length) {
+                int capacity = this.size * 2;
+                this.vertices = Arrays.copyOf(this.vertices, capacity);
+                this.weights = Arrays.copyOf(this.weights, capacity);
+                this.middles = Arrays.copyOf(this.middles, capacity);
+            }
+            this.vertices[this.size] = vertex;
+            this.weights[this.size] = weight;
+            this.middles[this.size] = middle;
+            this.size++;
+        }
+
+        void remove(int position) {
+            this.size--;
+            this.vertices[position] = this.vertices[this.size];
+            this.weights[position] = this.weights[this.size];
+            this.middles[position] = this.middles[this.size];
+        }
+    }
+
+    ContractionHierarchyBuilder(GraphRepresentation<V> graph) {
+        graph = graph.snapshot();
+        int bound = graph.vertexIndexBound();
+        int[] localIndexes = new int[bound];
+        int vertexCount = 0;
+        for (int i = 0; i < bound; i++) {
+            localIndexes[i] = graph.getVertexAt(i) == null ? -1 : vertexCount++;
+        }
+        this.vertices = new Object[vertexCount];
+        this.outgoing = new Row[vertexCount];
+        this.incoming = new Row[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            this.outgoing[i] = new Row();
+            this.incoming[i] = new Row();
+        }
+        for (int i = 0; i < bound; i++) {
+            int from = localIndexes[i];
+            if (from < 0) {
+                continue;
+            }
+            this.vertices[from] = graph.getVertexAt(i);
+            int neighbourCount = graph.neighbourCount(i);
+            for (int j = 0; j < neighbourCount; j++) {
+                int to = localIndexes[graph.getNeighbourIndex(i, j)];
+                double weight = graph.getNeighbourWeight(i, j);
+                if (weight < 0.0) {
+                    throw new IllegalArgumentException("Edge weights must not be negative!");
+                }
+                // a self loop is never part of a shortest path
+                if (to != from) {
+                    this.outgoing[from].add(to, weight, -1);
+                    this.incoming[to].add(from, weight, -1);
+                }
+            }
+        }
+        this.contracted = new boolean[vertexCount];
+        this.contractedNeighbours = new int[vertexCount];
+        this.ranks = new int[vertexCount];
+        this.levels = new int[vertexCount];
+        this.witnessHeap = new IndexedDaryHeap(vertexCount);
+        this.witnessDistances = new double[vertexCount];
+        this.reachedStamps = new int[vertexCount];
+        this.targetStamps = new int[vertexCount];
+    }
+
+    ContractionHierarchy<V> build() {
+        int vertexCount = this.vertices.length;
+        IndexedDaryHeap queue = new IndexedDaryHeap(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            queue.insert(i, this.priority(i));
+        }
+        int rank = 0;
+        while (!queue.isEmpty()) {
+            int vertex = queue.pollMin();
+            double priority = this.priority(vertex);
+            if (!queue.isEmpty() && priority > queue.getKey(queue.peekMin())) {
+                queue.insert(vertex, priority);
+                continue;
+            }
+            this.ranks[vertex] = rank++;
+            this.contract(vertex);
+            Row out = this.outgoing[vertex];
+            Row in = this.incoming[vertex];
+            for (int i = 0; i < out.size + in.size; i++) {
+                int neighbour = i < out.size ? out.vertices[i] : in.vertices[i - out.size];
+                this.contractedNeighbours[neighbour]++;
+                this.levels[neighbour] = Math.max(this.levels[neighbour], this.levels[vertex] + 1);
+            }
+        }
+        return this.toHierarchy();
+    }
+
+    private double priority(int vertex) {
+        Row in = this.incoming[vertex];
+        Row out = this.outgoing[vertex];
+        int edgeDifference = this.shortcutsNeeded(vertex, false) - in.size - out.size;
+        return 2 * edgeDifference + this.contractedNeighbours[vertex] + this.levels[vertex];
+    }
+
+    // removes the vertex from the remaining graph, adding a shortcut u -> w for every u -> vertex -> w
+    // that is the only shortest path between them
+    private void contract(int vertex) {
+        this.shortcutsNeeded(vertex, true);
+        Row in = this.incoming[vertex];
+        Row out = this.outgoing[vertex];
+        for (int i = 0; i < in.size; i++) {
+            Row row = this.outgoing[in.vertices[i]];
+            row.remove(row.indexOf(vertex));
+        }
+        for (int i = 0; i < out.size; i++) {
+            Row row = this.incoming[out.vertices[i]];
+            row.remove(row.indexOf(vertex));
+        }
+    }
+
+    // counts the shortcuts contracting the vertex needs, adds them as well when add is set
+    private int shortcutsNeeded(int vertex, boolean add) {
+        Row in = this.incoming[vertex];
+        Row out = this.outgoing[vertex];
+        if (in.size == 0 || out.size == 0) {
+            this.contracted[vertex] = add;
+            return 0;
+        }
+        double maxOutWeight = 0.0;
+        for (int i = 0; i < out.size; i++) {
+            maxOutWeight = Math.max(maxOutWeight, out.weights[i]);
+        }
+        this.contracted[vertex] = true;
+        int shortcuts = 0;
+        for (int i = 0; i < in.size; i++) {
+            int from = in.vertices[i];
+            double inWeight = in.weights[i];
+            this.witnessSearch(from, inWeight + maxOutWeight, out, add ? MAX_WITNESS_SETTLED : SIMULATED_WITNESS_SETTLED);
+            for (int j = 0; j < out.size; j++) {
+                int to = out.vertices[j];
+                double length = inWeight + out.weights[j];
+                if (to == from || (this.reachedStamps[to] == this.queryStamp && this.witnessDistances[to] <= length)) {
+                    continue;
+                }
+                shortcuts++;
+                if (add) {
+                    this.addShortcut(from, to, length, vertex);
+                }
+            }
+        }
+        this.contracted[vertex] = add;
+        return shortcuts;
+    }
+
+    private void addShortcut(int from, int to, double weight, int middle) {
+        Row out = this.outgoing[from];
+        int position = out.indexOf(to);
+        if (position < 0) {
+            out.add(to, weight, middle);
+            this.incoming[to].add(from, weight, middle);
+        } else if (weight < out.weights[position]) {
+            out.weights[position] = weight;
+            out.middles[position] = middle;
+            Row in = this.incoming[to];
+            int inPosition = in.indexOf(from);
+            in.weights[inPosition] = weight;
+            in.middles[inPosition] = middle;
+        }
+    }
+
+    // Dijkstra from source over vertices not contracted, until every target is settled or distances exceed
+    // maxDistance, leaves upper bounds of the distances of the reached vertices in witnessDistances
+    private void witnessSearch(int source, double maxDistance, Row targets, int maxSettled) {
+        this.queryStamp++;
+        if (this.queryStamp == 0) {
+            Arrays.fill(this.reachedStamps, 0);
+            Arrays.fill(this.targetStamps, 0);
+            this.queryStamp = 1;
+        }
+        int remaining = 0;
+        for (int i = 0; i < targets.size; i++) {
+            if (this.targetStamps[targets.vertices[i]] != this.queryStamp) {
+                this.targetStamps[targets.vertices[i]] = this.queryStamp;
+                remaining++;
+            }
+        }
+        this.witnessHeap.clear();
+        this.reachedStamps[source] = this.queryStamp;
+        this.witnessDistances[source] = 0.0;
+        this.witnessHeap.insert(source, 0.0);
+        int settled = 0;
+        while (!this.witnessHeap.isEmpty() && settled < maxSettled) {
+            int vertex = this.witnessHeap.pollMin();
+            double distance = this.witnessDistances[vertex];
+            if (distance > maxDistance) {
+                break;
+            }
+            settled++;
+            if (this.targetStamps[vertex] == this.queryStamp && --remaining == 0) {
+                break;
+            }
+            Row out = this.outgoing[vertex];
+            for (int i = 0; i < out.size; i++) {
+                int neighbour = out.vertices[i];
+                if (this.contracted[neighbour]) {
+                    continue;
+                }
+                double newDistance = distance + out.weights[i];
+                if (this.reachedStamps[neighbour] != this.queryStamp) {
+                    this.reachedStamps[neighbour] = this.queryStamp;
+                    this.witnessDistances[neighbour] = newDistance;
+                    this.witnessHeap.insert(neighbour, newDistance);
+                } else if (newDistance < this.witnessDistances[neighbour] && this.witnessHeap.contains(neighbour)) {
+                    this.witnessDistances[neighbour] = newDistance;
+                    this.witnessHeap.decreaseKey(neighbour, newDistance);
+                }
+            }
+        }
+    }
+
+    // vertices are renumbered by rank, so every upward edge leads to a higher index. The remaining rows of a vertex
+    // hold exactly its edges to vertices contracted later: outgoing ones for the forward search, incoming ones for
+    // the backward search.
+    private ContractionHierarchy<V> toHierarchy() {
+        int vertexCount = this.vertices.length;
+        Object[] vertices = new Object[vertexCount];
+        int[] order = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[this.ranks[i]] = this.vertices[i];
+            order[this.ranks[i]] = i;
+        }
+        int[] forwardOffsets = new int[vertexCount + 1];
+        int[] backwardOffsets = new int[vertexCount + 1];
+        for (int rank = 0; rank < vertexCount; rank++) {
+            forwardOffsets[rank + 1] = forwardOffsets[rank] + this.outgoing[order[rank]].size;
+            backwardOffsets[rank + 1] = backwardOffsets[rank] + this.incoming[order[rank]].size;
+        }
+        int[] forwardTargets = new int[forwardOffsets[vertexCount]];
+        double[] forwardWeights = new double[forwardTargets.length];
+        int[] forwardMiddles = new int[forwardTargets.length];
+        int[] backwardSources = new int[backwardOffsets[vertexCount]];
+        double[] backwardWeights = new double[backwardSources.length];
+        int[] backwardMiddles = new int[backwardSources.length];
+        for (int rank = 0; rank < vertexCount; rank++) {
+            this.fillRow(this.outgoing[order[rank]], forwardOffsets[rank], forwardTargets, forwardWeights, forwardMiddles);
+            this.fillRow(this.incoming[order[rank]], backwardOffsets[rank], backwardSources, backwardWeights, backwardMiddles);
+            this.outgoing[order[rank]] = null;
+            this.incoming[order[rank]] = null;
+        }
+        return new ContractionHierarchy<>(vertices, forwardOffsets, forwardTargets, forwardWeights, forwardMiddles,
+                backwardOffsets, backwardSources, backwardWeights, backwardMiddles);
+    }
+
+    // rows are sorted by vertex, which lets shortcuts be unpacked with a binary search
+    private void fillRow(Row row, int offset, int[] vertices, double[] weights, int[] middles) {
+        long[] keys = new long[row.size];
+        for (int i = 0; i < row.size; i++) {
+            keys[i] = ((long) this.ranks[row.vertices[i]] << 32) | i;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < row.size; i++) {
+            int position = (int) keys[i];
+            vertices[offset + i] = (int) (keys[i] >>> 32);
+            weights[offset + i] = row.weights[position];
+            middles[offset + i] = row.middles[position] < 0 ? -1 : this.ranks[row.middles[position]];
+        }
+    }
+}
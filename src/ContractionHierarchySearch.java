@@ -0,0 +1,234 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// point to point queries on a ContractionHierarchy: Dijkstra from the start over forward upward edges and from the
+// end over backward upward edges, the shortest path goes up from both ends to its highest vertex. A vertex reached
+// with a distance that an edge from a higher vertex already beats is stalled and not expanded, it cannot lie on
+// a shortest path. The hierarchy can be shared, a search is not thread safe, use one per thread.
+// Graph.setShortestPathFinder(representation -> search) routes the graph's queries here, its modifications are not seen.
+public class ContractionHierarchySearch<V> implements ShortestPathFinder<V> {
+    private final ContractionHierarchy<V> hierarchy;
+    private final SearchSide forward;
+    private final SearchSide backward;
+    private int settledCount;
+    private long relaxedCount;
+    // best meeting vertex of the last query, -1 when the searches did not meet
+    private int meetingVertex;
+    private double bestLength;
+    private Instrumentation instrumentation;
+
+    private static class SearchSide {
+        // upward edges searched
+        final int[] offsets;
+        final int[] targets;
+        final double[] weights;
+        final int[] middles;
+        // the opposite upward edges lead from higher vertices into a vertex, they are checked for stalling
+        final int[] stallOffsets;
+        final int[] stallSources;
+        final double[] stallWeights;
+        final IndexedDaryHeap heap;
+        final double[] distances;
+        // towards the start for the forward side, towards the end for the backward side
+        final int[] parents;
+        // edge position the parent reached the vertex through
+        final int[] parentEdges;
+        final int[] reachedStamps;
+        int queryStamp;
+
+        SearchSide(int vertexCount, int[] offsets, int[] targets, double[] weights, int[] middles,
+                   int[] stallOffsets, int[] stallSources, double[] stallWeights) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.middles = middles;
+            this.stallOffsets = stallOffsets;
+            this.stallSources = stallSources;
+            this.stallWeights = stallWeights;
+            this.heap = new IndexedDaryHeap(vertexCount);
+            this.distances = new double[vertexCount];
+            this.parents = new int[vertexCount];
+            this.parentEdges = new int[vertexCount];
+            this.reachedStamps = new int[vertexCount];
+        }
+
+        void reset(int rootIndex) {
+            this.heap.clear();
+            this.queryStamp++;
+            if (this.queryStamp == 0) {
+                Arrays.fill(this.reachedStamps, 0);
+                this.queryStamp = 1;
+            }
+            this.reachedStamps[rootIndex] = this.queryStamp;
+            this.distances[rootIndex] = 0.0;
+            this.parents[rootIndex] = -1;
+            this.heap.insert(rootIndex, 0.0);
+        }
+
+        boolean isReached(int vertexIndex) {
+            return this.reachedStamps[vertexIndex] == this.queryStamp;
+        }
+
+        double minKey() {
+            return this.heap.isEmpty() ? Double.POSITIVE_INFINITY : this.heap.getKey(this.heap.peekMin());
+        }
+
+        boolean isStalled(int vertexIndex, double distance) {
+            for (int i = this.stallOffsets[vertexIndex]; i < this.stallOffsets[vertexIndex + 1]; i++) {
+                int higher = this.stallSources[i];
+                if (this.isReached(higher) && this.distances[higher] + this.stallWeights[i] < distance) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public ContractionHierarchySearch(ContractionHierarchy<V> hierarchy) {
+        this.hierarchy = hierarchy;
+        int vertexCount = hierarchy.vertexCount();
+        this.forward = new SearchSide(vertexCount, hierarchy.forwardOffsets, hierarchy.forwardTargets,
+                hierarchy.forwardWeights, hierarchy.forwardMiddles,
+                hierarchy.backwardOffsets, hierarchy.backwardSources, hierarchy.backwardWeights);
+        this.backward = new SearchSide(vertexCount, hierarchy.backwardOffsets, hierarchy.backwardSources,
+                hierarchy.backwardWeights, hierarchy.backwardMiddles,
+                hierarchy.forwardOffsets, hierarchy.forwardTargets, hierarchy.forwardWeights);
+    }
+
+    public ContractionHierarchy<V> getHierarchy() {
+        return this.hierarchy;
+    }
+
+    // shortcuts on the way are unpacked into the edges of the graph
+    @Override
+    public Path<V> getShortestPath(V startVertex, V endVertex) {
+        QueryMetrics metrics = this.instrumentation == null ? null : new QueryMetrics("contraction-hierarchy");
+        long start = metrics == null ? 0 : System.nanoTime();
+        int startIndex = this.hierarchy.getVertexIndex(startVertex);
+        int endIndex = this.hierarchy.getVertexIndex(endVertex);
+        this.search(startIndex, endIndex);
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.SEARCH, start);
+        }
+        Path<V> path = this.buildPath(startIndex, endIndex);
+        if (metrics != null) {
+            this.finish(metrics, start);
+        }
+        return path;
+    }
+
+    @Override
+    public double getShortestPathLength(V startVertex, V endVertex) {
+        QueryMetrics metrics = this.instrumentation == null ? null : new QueryMetrics("contraction-hierarchy");
+        long start = metrics == null ? 0 : System.nanoTime();
+        this.search(this.hierarchy.getVertexIndex(startVertex), this.hierarchy.getVertexIndex(endVertex));
+        if (metrics != null) {
+            this.finish(metrics, metrics.endPhase(QueryMetrics.Phase.SEARCH, start));
+        }
+        return this.bestLength;
+    }
+
+    @Override
+    public int getSettledCount() {
+        return this.settledCount;
+    }
+
+    @Override
+    public void setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    // pushes are derived like in DijkstraEngine, every reached vertex of a side is settled or still queued there
+    private void finish(QueryMetrics metrics, long resultStart) {
+        metrics.endPhase(QueryMetrics.Phase.RESULT, resultStart);
+        metrics.verticesSettled = this.settledCount;
+        metrics.edgesRelaxed = this.relaxedCount;
+        metrics.heapPushes = this.settledCount + this.forward.heap.size() + this.backward.heap.size();
+        metrics.heapPops = this.settledCount;
+        this.instrumentation.queryFinished(metrics);
+    }
+
+    private void search(int startIndex, int endIndex) {
+        this.forward.reset(startIndex);
+        this.backward.reset(endIndex);
+        this.settledCount = 0;
+        this.relaxedCount = 0;
+        this.meetingVertex = -1;
+        this.bestLength = Double.POSITIVE_INFINITY;
+
+        // unlike plain bidirectional Dijkstra each side has to go on until its own frontier passes the best length,
+        // the highest vertex of the path may be far from the other side's frontier
+        while (true) {
+            double forwardKey = this.forward.minKey();
+            double backwardKey = this.backward.minKey();
+            if (forwardKey >= this.bestLength && backwardKey >= this.bestLength) {
+                break;
+            }
+            if (forwardKey <= backwardKey) {
+                this.settleNext(this.forward, this.backward);
+            } else {
+                this.settleNext(this.backward, this.forward);
+            }
+        }
+    }
+
+    private void settleNext(SearchSide side, SearchSide other) {
+        int vertex = side.heap.pollMin();
+        this.settledCount++;
+        double distance = side.distances[vertex];
+        if (other.isReached(vertex) && distance + other.distances[vertex] < this.bestLength) {
+            this.bestLength = distance + other.distances[vertex];
+            this.meetingVertex = vertex;
+        }
+        if (side.isStalled(vertex, distance)) {
+            return;
+        }
+        int end = side.offsets[vertex + 1];
+        this.relaxedCount += end - side.offsets[vertex];
+        for (int i = side.offsets[vertex]; i < end; i++) {
+            int neighbour = side.targets[i];
+            double newDistance = distance + side.weights[i];
+            if (!side.isReached(neighbour)) {
+                side.reachedStamps[neighbour] = side.queryStamp;
+                side.distances[neighbour] = newDistance;
+                side.heap.insert(neighbour, newDistance);
+            } else if (newDistance < side.distances[neighbour] && side.heap.contains(neighbour)) {
+                side.distances[neighbour] = newDistance;
+                side.heap.decreaseKey(neighbour, newDistance);
+            } else {
+                continue;
+            }
+            side.parents[neighbour] = vertex;
+            side.parentEdges[neighbour] = i;
+        }
+    }
+
+    private Path<V> buildPath(int startIndex, int endIndex) {
+        if (this.meetingVertex < 0) {
+            return null;
+        }
+        if (startIndex == endIndex) {
+            return new Path<>(this.hierarchy.getVertexAt(startIndex));
+        }
+
+        // upward edges from the start to the meeting vertex, then from the meeting vertex down to the end
+        List<Edge<V>> edges = new ArrayList<>();
+        List<Edge<V>> reversed = new ArrayList<>();
+        for (int current = this.meetingVertex; this.forward.parents[current] >= 0; current = this.forward.parents[current]) {
+            int edge = this.forward.parentEdges[current];
+            int edgeCount = reversed.size();
+            this.hierarchy.unpack(this.forward.parents[current], current, this.forward.weights[edge], this.forward.middles[edge], reversed);
+            // the edges of one shortcut are in path order, the reversal below must keep them so
+            Collections.reverse(reversed.subList(edgeCount, reversed.size()));
+        }
+        Collections.reverse(reversed);
+        edges.addAll(reversed);
+        for (int current = this.meetingVertex; this.backward.parents[current] >= 0; current = this.backward.parents[current]) {
+            int edge = this.backward.parentEdges[current];
+            this.hierarchy.unpack(current, this.backward.parents[current], this.backward.weights[edge], this.backward.middles[edge], edges);
+        }
+        return new Path<>(edges, this.bestLength);
+    }
+}
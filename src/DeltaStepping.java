@@ -0,0 +1,245 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+// parallel single source shortest paths, non-negative weights assumed. Vertices are kept in buckets of width delta,
+// edges of weight <= delta (light) are relaxed repeatedly while a bucket settles, the heavy ones once afterwards.
+// Works on an immutable snapshot like ParallelShortestPaths, one query at a time per instance.
+public class DeltaStepping<V> {
+    private final CompressedSparseRowRepresentation<V> graph;
+    private final double delta;
+    private final ForkJoinPool pool;
+
+    private AtomicLongArray distances;
+    // vertices whose distance improved in the current phase, each listed once thanks to touchedFlags
+    private AtomicIntegerArray touchedFlags;
+    private int[] touched;
+    private AtomicInteger touchedCount;
+    private TreeMap<Long, IntList> buckets;
+    private Instrumentation instrumentation;
+    // null unless instrumentation is set, only updated between the parallel phases
+    private QueryMetrics metrics;
+
+    private static class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = value;
+        }
+    }
+
+    public DeltaStepping(GraphRepresentation<V> graphRepresentation, double delta) {
+        this(graphRepresentation, delta, ForkJoinPool.commonPool());
+    }
+
+    // representations other than CompressedSparseRowRepresentation are copied, later modifications are not seen
+    public DeltaStepping(GraphRepresentation<V> graphRepresentation, double delta, ForkJoinPool pool) {
+        if (!(delta > 0.0)) {
+            throw new IllegalArgumentException("Delta must be positive!");
+        }
+        this.graph = graphRepresentation instanceof CompressedSparseRowRepresentation
+                ? (CompressedSparseRowRepresentation<V>) graphRepresentation
+                : new CompressedSparseRowRepresentation<>(graphRepresentation);
+        this.delta = delta;
+        this.pool = pool;
+    }
+
+    public List<Path<V>> getShortestPaths(V startVertex) {
+        return this.getShortestPathTree(startVertex).getPaths();
+    }
+
+    public ShortestPathTree<V> getShortestPathTree(V startVertex) {
+        this.metrics = this.instrumentation == null ? null : new QueryMetrics("delta-stepping");
+        long start = this.metrics == null ? 0 : System.nanoTime();
+        int sourceIndex = this.graph.getVertexIndex(startVertex);
+        int bound = this.graph.vertexIndexBound();
+        this.distances = new AtomicLongArray(bound);
+        for (int i = 0; i < bound; i++) {
+            this.distances.set(i, Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+        }
+        this.touchedFlags = new AtomicIntegerArray(bound);
+        this.touched = new int[bound];
+        this.touchedCount = new AtomicInteger();
+        this.buckets = new TreeMap<>();
+
+        this.distances.set(sourceIndex, Double.doubleToRawLongBits(0.0));
+        this.bucketFor(0.0).add(sourceIndex);
+        if (this.metrics != null) {
+            this.metrics.heapPushes++;
+            start = this.metrics.endPhase(QueryMetrics.Phase.PREPARE, start);
+        }
+
+        int[] settledStamps = new int[bound];
+        int stamp = 0;
+        IntList settledInBucket = new IntList();
+        while (!this.buckets.isEmpty()) {
+            Map.Entry<Long, IntList> smallest = this.buckets.pollFirstEntry();
+            long bucketIndex = smallest.getKey();
+            IntList bucket = smallest.getValue();
+            stamp++;
+            settledInBucket.size = 0;
+            while (bucket != null) {
+                int[] frontier = this.collectFrontier(bucket, bucketIndex, settledStamps, stamp, settledInBucket);
+                this.relaxInParallel(frontier, frontier.length, true);
+                this.distributeTouched();
+                bucket = this.buckets.remove(bucketIndex);
+            }
+            this.relaxInParallel(settledInBucket.values, settledInBucket.size, false);
+            this.distributeTouched();
+            if (this.metrics != null) {
+                this.metrics.verticesSettled += settledInBucket.size;
+            }
+        }
+        if (this.metrics != null) {
+            start = this.metrics.endPhase(QueryMetrics.Phase.SEARCH, start);
+        }
+
+        double[] finalDistances = new double[bound];
+        for (int i = 0; i < bound; i++) {
+            finalDistances[i] = Double.longBitsToDouble(this.distances.get(i));
+        }
+        this.distances = null;
+        this.touchedFlags = null;
+        this.touched = null;
+        this.buckets = null;
+        ShortestPathTree<V> tree = new ShortestPathTree<>(this.graph, sourceIndex, finalDistances, this.buildParents(sourceIndex, finalDistances));
+        if (this.metrics != null) {
+            this.metrics.endPhase(QueryMetrics.Phase.RESULT, start);
+            this.instrumentation.queryFinished(this.metrics);
+            this.metrics = null;
+        }
+        return tree;
+    }
+
+    // receives the metrics of every following query, null turns it off. Bucket appends count as pushes, entries
+    // dropped from a bucket because their distance moved to a lower bucket or they were listed twice as stale pops.
+    public void setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    public CompressedSparseRowRepresentation<V> getGraph() {
+        return this.graph;
+    }
+
+    // live vertices of the bucket that have not been processed in it yet, duplicates and stale entries dropped
+    private int[] collectFrontier(IntList bucket, long bucketIndex, int[] frontierStamps, int stamp, IntList settledInBucket) {
+        int[] frontier = new int[bucket.size];
+        int size = 0;
+        for (int i = 0; i < bucket.size; i++) {
+            int vertex = bucket.values[i];
+            double distance = Double.longBitsToDouble(this.distances.get(vertex));
+            if ((long) (distance / this.delta) != bucketIndex) {
+                continue;
+            }
+            if (frontierStamps[vertex] != stamp) {
+                frontierStamps[vertex] = stamp;
+                settledInBucket.add(vertex);
+            }
+            frontier[size++] = vertex;
+        }
+        // a vertex listed twice is relaxed twice, harmless but wasteful, so drop the repeats
+        Arrays.sort(frontier, 0, size);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || frontier[i] != frontier[i - 1]) {
+                frontier[unique++] = frontier[i];
+            }
+        }
+        if (this.metrics != null) {
+            this.metrics.heapPops += bucket.size;
+            this.metrics.stalePops += bucket.size - unique;
+            this.metrics.addFrontierSize(unique);
+        }
+        return Arrays.copyOf(frontier, unique);
+    }
+
+    private void relaxInParallel(int[] vertices, int count, boolean lightEdges) {
+        if (count == 0) {
+            return;
+        }
+        if (this.metrics != null) {
+            // both passes look at every edge of their vertices and skip the ones of the other kind
+            for (int i = 0; i < count; i++) {
+                this.metrics.edgesRelaxed += this.graph.neighbourCount(vertices[i]);
+            }
+        }
+        this.pool.submit(() -> IntStream.range(0, count).parallel().forEach(i -> {
+            int vertex = vertices[i];
+            double distance = Double.longBitsToDouble(this.distances.get(vertex));
+            int neighbourCount = this.graph.neighbourCount(vertex);
+            for (int j = 0; j < neighbourCount; j++) {
+                double weight = this.graph.getNeighbourWeight(vertex, j);
+                if ((weight <= this.delta) == lightEdges) {
+                    this.relax(this.graph.getNeighbourIndex(vertex, j), distance + weight);
+                }
+            }
+        })).join();
+    }
+
+    private void relax(int vertex, double newDistance) {
+        while (true) {
+            long currentBits = this.distances.get(vertex);
+            if (newDistance >= Double.longBitsToDouble(currentBits)) {
+                return;
+            }
+            if (this.distances.compareAndSet(vertex, currentBits, Double.doubleToRawLongBits(newDistance))) {
+                break;
+            }
+        }
+        if (this.touchedFlags.compareAndSet(vertex, 0, 1)) {
+            this.touched[this.touchedCount.getAndIncrement()] = vertex;
+        }
+    }
+
+    private void distributeTouched() {
+        int count = this.touchedCount.getAndSet(0);
+        if (this.metrics != null) {
+            this.metrics.heapPushes += count;
+        }
+        for (int i = 0; i < count; i++) {
+            int vertex = this.touched[i];
+            this.touchedFlags.set(vertex, 0);
+            this.bucketFor(Double.longBitsToDouble(this.distances.get(vertex))).add(vertex);
+        }
+    }
+
+    private IntList bucketFor(double distance) {
+        return this.buckets.computeIfAbsent((long) (distance / this.delta), key -> new IntList());
+    }
+
+    // every final distance is exactly distance[parent] + weight for some parent, a BFS over such edges gives the tree
+    private int[] buildParents(int sourceIndex, double[] finalDistances) {
+        int bound = finalDistances.length;
+        int[] parents = new int[bound];
+        Arrays.fill(parents, -1);
+        boolean[] visited = new boolean[bound];
+        int[] queue = new int[bound];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = sourceIndex;
+        visited[sourceIndex] = true;
+        while (head < tail) {
+            int vertex = queue[head++];
+            int neighbourCount = this.graph.neighbourCount(vertex);
+            for (int i = 0; i < neighbourCount; i++) {
+                int neighbour = this.graph.getNeighbourIndex(vertex, i);
+                if (!visited[neighbour] && finalDistances[vertex] + this.graph.getNeighbourWeight(vertex, i) == finalDistances[neighbour]) {
+                    visited[neighbour] = true;
+                    parents[neighbour] = vertex;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        return parents;
+    }
+}
@@ -1,83 +1,97 @@
 import java.util.*;
 
 // not thread safe
-public class Dijkstra<V> {
+public class Dijkstra<V> implements ShortestPathFinder<V> {
     private GraphRepresentation<V> graph;
-    private V startVertex;
-    private PriorityQueue<ReachableVertex<V>> reachableVertices;
-    private Map<V, ReachableVertex<V>> reachedVertices;
+    private DijkstraEngine engine;
+    private Instrumentation instrumentation;
 
     public Dijkstra(GraphRepresentation<V> graphRepresentation) {
         this.graph = graphRepresentation;
+        this.engine = new DijkstraEngine(graphRepresentation);
     }
 
     public List<Path<V>> getShortestPaths(V startVertex) {
-        this.startVertex = startVertex;
-        this.reachableVertices = new PriorityQueue<>();
-        this.reachedVertices = new HashMap<>();
-        this.reachableVertices.add(new ReachableVertex<>(startVertex, startVertex, 0.0));
-        while(!this.reachableVertices.isEmpty()) {
-            ReachableVertex<V> closest = this.reachableVertices.poll();
-            V vertex = closest.vertex;
-            if(this.reachedVertices.containsKey(vertex)) {
-                continue;
-            }
-            this.reachedVertices.put(vertex, closest);
-            List<V> neighbours = this.graph.getVertexNeighbours(vertex);
-            for(V neighbour : neighbours) {
-                if(this.reachedVertices.get(neighbour) != null) {
-                    continue;
-                }
-                double price = closest.price + this.graph.getEdgeWeight(vertex, neighbour);
-                this.reachableVertices.add(new ReachableVertex<>(neighbour, vertex, price));
-            }
-        }
-        return constructPaths();
+        return this.getShortestPathTree(startVertex).getPaths();
     }
 
-    private List<Path<V>> constructPaths() {
-        List<Path<V>> paths = new ArrayList<>();
-        for(Map.Entry<V, ReachableVertex<V>> entry : reachedVertices.entrySet()) {
-            Path<V> newPath = constructPathToVertex(entry.getKey());
-            paths.add(newPath);
+    public ShortestPathTree<V> getShortestPathTree(V startVertex) {
+        QueryMetrics metrics = this.instrumentation == null ? null : new QueryMetrics("dijkstra");
+        long start = metrics == null ? 0 : System.nanoTime();
+        this.engine.prepare(this.graph.getVertexIndex(startVertex));
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.PREPARE, start);
+        }
+        this.engine.search();
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.SEARCH, start);
+        }
+        ShortestPathTree<V> tree = ShortestPathTree.fromEngine(this.queryGraph(), this.engine);
+        if (metrics != null) {
+            this.finish(metrics, start);
         }
-        return paths;
+        return tree;
     }
 
-    private Path<V> constructPathToVertex(V endVertex) {
-        if(endVertex == this.startVertex) {
-            return new Path<>(this.startVertex);
+    // the search stops once endVertex is settled
+    @Override
+    public Path<V> getShortestPath(V startVertex, V endVertex) {
+        QueryMetrics metrics = this.instrumentation == null ? null : new QueryMetrics("dijkstra");
+        long start = metrics == null ? 0 : System.nanoTime();
+        int endIndex = this.graph.getVertexIndex(endVertex);
+        this.engine.prepare(this.graph.getVertexIndex(startVertex));
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.PREPARE, start);
         }
+        boolean isReachable = this.engine.search(endIndex);
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.SEARCH, start);
+        }
+        Path<V> path = !isReachable ? null : ShortestPathTree.buildPath(this.queryGraph(), this.engine.getSourceIndex(), endIndex,
+                this.engine::getParent, this.engine.getDistance(endIndex));
+        if (metrics != null) {
+            this.finish(metrics, start);
+        }
+        return path;
+    }
 
-        List<Edge<V>> listOfEdges = new LinkedList<>();
-        V currentVertex = endVertex;
-        while(currentVertex != this.startVertex) {
-            ReachableVertex<V> vertexEntry = this.reachedVertices.get(currentVertex);
-            V parent = vertexEntry.parent;
-            double weight = this.graph.getEdgeWeight(parent, currentVertex);
-            Edge<V> newEdge = new Edge<>(parent, currentVertex, weight);
-            listOfEdges.add(newEdge);
-            currentVertex = parent;
+    // distance only, never builds a Path
+    @Override
+    public double getShortestPathLength(V startVertex, V endVertex) {
+        QueryMetrics metrics = this.instrumentation == null ? null : new QueryMetrics("dijkstra");
+        long start = metrics == null ? 0 : System.nanoTime();
+        int endIndex = this.graph.getVertexIndex(endVertex);
+        this.engine.prepare(this.graph.getVertexIndex(startVertex));
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.PREPARE, start);
         }
+        this.engine.search(endIndex);
+        if (metrics != null) {
+            this.finish(metrics, metrics.endPhase(QueryMetrics.Phase.SEARCH, start));
+        }
+        return this.engine.getDistance(endIndex);
+    }
 
-        Collections.reverse(listOfEdges);
-        return new Path(listOfEdges);
+    @Override
+    public int getSettledCount() {
+        return this.engine.settledCount();
     }
 
-    private static class ReachableVertex<V> implements Comparable<ReachableVertex<V>> {
-        V vertex;
-        V parent;
-        double price;
+    @Override
+    public void setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
 
-        ReachableVertex(V vertex, V parent, double price) {
-            this.vertex = vertex;
-            this.parent = parent;
-            this.price = price;
-        }
+    // results are read from the snapshot the engine searched, vertex indexes are looked up on the representation,
+    // every snapshot of it agrees with those
+    @SuppressWarnings("unchecked")
+    private GraphRepresentation<V> queryGraph() {
+        return (GraphRepresentation<V>) this.engine.getGraph();
+    }
 
-        @Override
-        public int compareTo(ReachableVertex<V> other) {
-            return Double.compare(price, other.price);
-        }
+    private void finish(QueryMetrics metrics, long resultStart) {
+        metrics.endPhase(QueryMetrics.Phase.RESULT, resultStart);
+        this.engine.collectMetrics(metrics);
+        this.instrumentation.queryFinished(metrics);
     }
 }
@@ -0,0 +1,184 @@
+import java.util.Arrays;
+
+// single source shortest paths over vertex indexes, positive weights assumed
+// buffers are kept between queries, so a query allocates nothing once they have grown to the graph size
+// not thread safe, use one engine per thread
+public class DijkstraEngine {
+    private final GraphRepresentation<?> representation;
+    // snapshot of the representation taken by prepare, the whole query runs on it
+    private GraphRepresentation<?> graph;
+    private final IndexedDaryHeap heap;
+    private double[] distances;
+    private int[] parents;
+    // a vertex is reached in the current query when its stamp equals queryStamp
+    private int[] reachedStamps;
+    private int queryStamp;
+    private int[] targetStamps;
+    private int[] settledOrder;
+    private int settledCount;
+    private int sourceIndex = -1;
+
+    public DijkstraEngine(GraphRepresentation<?> graphRepresentation) {
+        this(graphRepresentation, IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    public DijkstraEngine(GraphRepresentation<?> graphRepresentation, int heapArity) {
+        this.representation = graphRepresentation;
+        this.graph = graphRepresentation;
+        int bound = graphRepresentation.vertexIndexBound();
+        this.heap = new IndexedDaryHeap(bound, heapArity);
+        this.distances = new double[bound];
+        this.parents = new int[bound];
+        this.reachedStamps = new int[bound];
+        this.targetStamps = new int[bound];
+        this.settledOrder = new int[bound];
+    }
+
+    public void run(int sourceIndex) {
+        this.prepare(sourceIndex);
+        this.search();
+    }
+
+    // stops as soon as the target is settled, returns whether it is reachable
+    public boolean run(int sourceIndex, int targetIndex) {
+        this.prepare(sourceIndex);
+        return this.search(targetIndex);
+    }
+
+    // run split in two, so callers can time growing the buffers and resetting them apart from the search
+    public void prepare(int sourceIndex) {
+        this.graph = this.representation.snapshot();
+        int bound = this.graph.vertexIndexBound();
+        if (sourceIndex < 0 || sourceIndex >= bound || this.graph.getVertexAt(sourceIndex) == null) {
+            throw new IllegalArgumentException("Vertex does not exist!");
+        }
+        if (bound > this.distances.length) {
+            int capacity = Math.max(bound, this.distances.length * 2);
+            this.heap.ensureCapacity(capacity);
+            this.distances = Arrays.copyOf(this.distances, capacity);
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.reachedStamps = Arrays.copyOf(this.reachedStamps, capacity);
+            this.targetStamps = Arrays.copyOf(this.targetStamps, capacity);
+            this.settledOrder = Arrays.copyOf(this.settledOrder, capacity);
+        }
+        this.heap.clear();
+        this.queryStamp++;
+        if (this.queryStamp == 0) {
+            Arrays.fill(this.reachedStamps, 0);
+            Arrays.fill(this.targetStamps, 0);
+            this.queryStamp = 1;
+        }
+        this.settledCount = 0;
+        this.sourceIndex = sourceIndex;
+
+        this.reachedStamps[sourceIndex] = this.queryStamp;
+        this.distances[sourceIndex] = 0.0;
+        this.parents[sourceIndex] = -1;
+        this.heap.insert(sourceIndex, 0.0);
+    }
+
+    // settles every vertex reachable from the prepared source
+    public void search() {
+        while (!this.heap.isEmpty()) {
+            this.settleNext();
+        }
+    }
+
+    public boolean search(int targetIndex) {
+        if (targetIndex < 0 || targetIndex >= this.graph.vertexIndexBound() || this.graph.getVertexAt(targetIndex) == null) {
+            throw new IllegalArgumentException("Vertex does not exist!");
+        }
+        while (!this.heap.isEmpty()) {
+            if (this.settleNext() == targetIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // stops once every target is settled, returns how many of them are reachable
+    public int run(int sourceIndex, int[] targetIndexes) {
+        this.prepare(sourceIndex);
+        int remaining = 0;
+        for (int targetIndex : targetIndexes) {
+            if (this.targetStamps[targetIndex] != this.queryStamp) {
+                this.targetStamps[targetIndex] = this.queryStamp;
+                remaining++;
+            }
+        }
+        int targetCount = remaining;
+        while (remaining > 0 && !this.heap.isEmpty()) {
+            if (this.targetStamps[this.settleNext()] == this.queryStamp) {
+                remaining--;
+            }
+        }
+        return targetCount - remaining;
+    }
+
+    // the snapshot the last query ran on
+    public GraphRepresentation<?> getGraph() {
+        return this.graph;
+    }
+
+    public int getSourceIndex() {
+        return this.sourceIndex;
+    }
+
+    // settled vertices have their final distance, an early terminated query leaves the rest unsettled
+    public boolean isSettled(int vertexIndex) {
+        return vertexIndex < this.reachedStamps.length && this.reachedStamps[vertexIndex] == this.queryStamp
+                && !this.heap.contains(vertexIndex);
+    }
+
+    public double getDistance(int vertexIndex) {
+        return this.isSettled(vertexIndex) ? this.distances[vertexIndex] : Double.POSITIVE_INFINITY;
+    }
+
+    // -1 for the source and for vertices that were not settled
+    public int getParent(int vertexIndex) {
+        return this.isSettled(vertexIndex) ? this.parents[vertexIndex] : -1;
+    }
+
+    public int settledCount() {
+        return this.settledCount;
+    }
+
+    public int getSettledAt(int position) {
+        return this.settledOrder[position];
+    }
+
+    // counters of the last query, derived from the settled order so the search loop itself counts nothing.
+    // Every reached vertex was pushed once and is either settled or still queued, the heap never holds stale entries.
+    public void collectMetrics(QueryMetrics metrics) {
+        long edgesRelaxed = 0;
+        for (int i = 0; i < this.settledCount; i++) {
+            edgesRelaxed += this.graph.neighbourCount(this.settledOrder[i]);
+        }
+        metrics.verticesSettled += this.settledCount;
+        metrics.edgesRelaxed += edgesRelaxed;
+        metrics.heapPushes += this.settledCount + this.heap.size();
+        metrics.heapPops += this.settledCount;
+    }
+
+    private int settleNext() {
+        int vertex = this.heap.pollMin();
+        this.settledOrder[this.settledCount++] = vertex;
+        double distance = this.distances[vertex];
+        int neighbourCount = this.graph.neighbourCount(vertex);
+        for (int i = 0; i < neighbourCount; i++) {
+            int neighbour = this.graph.getNeighbourIndex(vertex, i);
+            double newDistance = distance + this.graph.getNeighbourWeight(vertex, i);
+            if (this.reachedStamps[neighbour] != this.queryStamp) {
+                this.reachedStamps[neighbour] = this.queryStamp;
+                this.distances[neighbour] = newDistance;
+                this.parents[neighbour] = vertex;
+                this.heap.insert(neighbour, newDistance);
+            } else if (newDistance < this.distances[neighbour] && this.heap.contains(neighbour)) {
+                this.distances[neighbour] = newDistance;
+                this.parents[neighbour] = vertex;
+                this.heap.decreaseKey(neighbour, newDistance);
+            }
+        }
+        return vertex;
+    }
+}
@@ -0,0 +1,52 @@
+import java.util.HashMap;
+import java.util.List;
+
+// shortest path distances from every source (row) to every target (column), Double.POSITIVE_INFINITY when unreachable
+public class DistanceMatrix<V> {
+    private final List<V> sources;
+    private final List<V> targets;
+    private final HashMap<V, Integer> sourceRows;
+    private final HashMap<V, Integer> targetColumns;
+    // row major, distances[row * targets.size() + column]
+    private final double[] distances;
+
+    DistanceMatrix(List<V> sources, List<V> targets, double[] distances) {
+        this.sources = sources;
+        this.targets = targets;
+        this.distances = distances;
+        this.sourceRows = new HashMap<>(sources.size() * 2);
+        for (int i = 0; i < sources.size(); i++) {
+            this.sourceRows.put(sources.get(i), i);
+        }
+        this.targetColumns = new HashMap<>(targets.size() * 2);
+        for (int i = 0; i < targets.size(); i++) {
+            this.targetColumns.put(targets.get(i), i);
+        }
+    }
+
+    public double getDistance(V source, V target) {
+        Integer row = this.sourceRows.get(source);
+        Integer column = this.targetColumns.get(target);
+        if (row == null || column == null) {
+            throw new IllegalArgumentException("Vertex is not part of the matrix!");
+        }
+        return this.getDistance(row, column);
+    }
+
+    public double getDistance(int row, int column) {
+        return this.distances[row * this.targets.size() + column];
+    }
+
+    public List<V> getSources() {
+        return this.sources;
+    }
+
+    public List<V> getTargets() {
+        return this.targets;
+    }
+
+    // the backing array, not a copy
+    public double[] getDistances() {
+        return this.distances;
+    }
+}
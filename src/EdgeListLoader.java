@@ -0,0 +1,452 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+// bulk loads edge lists straight from bytes, no String or boxed value per line. Numeric vertex ids are interned
+// into dense indexes and turned into vertices once through the vertex factory. Edges are only collected while reading,
+// duplicates are dropped in one sort when a representation is built, keeping the smallest weight.
+// Several files can be read into the same loader. Not thread safe.
+public class EdgeListLoader<V> {
+    private static final int BUFFER_SIZE = 1 << 20;
+    // largest array the VM reliably allocates, rows are indexed by int so no more edges fit
+    private static final int MAX_EDGE_COUNT = Integer.MAX_VALUE - 8;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final LongFunction<V> vertexFactory;
+    private final IdMap ids = new IdMap();
+    private final ArrayList<V> vertices = new ArrayList<>();
+    private int[] edgeSources = new int[1024];
+    private int[] edgeTargets = new int[1024];
+    private double[] edgeWeights = new double[1024];
+    private int edgeCount;
+
+    // rows of the last build, null until built and after new edges were read
+    private int[] offsets;
+    private int[] targets;
+    private double[] weights;
+
+    private long bytesRead;
+    private long linesRead;
+    private long readNanos;
+    private long buildNanos;
+
+    // current line while parsing
+    private long lineNumber;
+    private int cursor;
+
+    // primitive open addressing map from file ids to dense indexes
+    private static class IdMap {
+        long[] keys = new long[1 << 10];
+        // index + 1, 0 marks an empty slot
+        int[] values = new int[1 << 10];
+        int size;
+
+        int get(long key) {
+            int mask = this.keys.length - 1;
+            for (int slot = hash(key) & mask; this.values[slot] != 0; slot = (slot + 1) & mask) {
+                if (this.keys[slot] == key) {
+                    return this.values[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if (2 * (this.size + 1) > this.keys.length) {
+                this.grow();
+            }
+            int mask = this.keys.length - 1;
+            int slot = hash(key) & mask;
+            while (this.values[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            this.keys[slot] = key;
+            this.values[slot] = value + 1;
+            this.size++;
+        }
+
+        void grow() {
+            long[] oldKeys = this.keys;
+            int[] oldValues = this.values;
+            this.keys = new long[oldKeys.length * 2];
+            this.values = new int[oldValues.length * 2];
+            this.size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != 0) {
+                    this.put(oldKeys[i], oldValues[i] - 1);
+                }
+            }
+        }
+
+        static int hash(long key) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32));
+        }
+    }
+
+    public EdgeListLoader(LongFunction<V> vertexFactory) {
+        this.vertexFactory = vertexFactory;
+    }
+
+    // one edge per line as "from to [weight]" separated by spaces, tabs or commas, the weight defaults to 1.
+    // Lines starting with # or % are comments
+    public EdgeListLoader<V> readEdgeList(File file) throws IOException {
+        this.read(file, false);
+        return this;
+    }
+
+    // DIMACS shortest path format: "c" comments, a "p sp <vertices> <arcs>" problem line and "a <from> <to> <weight>" arcs.
+    // Vertices 1 .. n of the problem line are all created, also the ones without arcs
+    public EdgeListLoader<V> readDimacs(File file) throws IOException {
+        this.read(file, true);
+        return this;
+    }
+
+    public CompressedSparseRowRepresentation<V> buildCompressedSparseRow() {
+        this.build();
+        return new CompressedSparseRowRepresentation<>(this.vertices.toArray(), this.offsets, this.targets, this.weights);
+    }
+
+    public AdjacencyListRepresentation<V> buildAdjacencyList() {
+        return this.buildAdjacencyList(AdjacencyListRepresentation.DEFAULT_EDGE_INDEX_THRESHOLD, false);
+    }
+
+    public AdjacencyListRepresentation<V> buildAdjacencyList(int edgeIndexThreshold, boolean trackIncomingEdges) {
+        this.build();
+        long start = System.nanoTime();
+        AdjacencyListRepresentation<V> representation = new AdjacencyListRepresentation<>(edgeIndexThreshold, trackIncomingEdges);
+        // a fresh representation hands out indexes in insertion order, so they match the interned ones
+        for (V vertex : this.vertices) {
+            representation.addVertex(vertex);
+        }
+        for (int i = 0; i < this.vertices.size(); i++) {
+            for (int j = this.offsets[i]; j < this.offsets[i + 1]; j++) {
+                representation.addEdgeUnchecked(i, this.targets[j], this.weights[j]);
+            }
+        }
+        this.buildNanos += System.nanoTime() - start;
+        return representation;
+    }
+
+    public int vertexCount() {
+        return this.vertices.size();
+    }
+
+    // edges read so far, duplicates included
+    public int edgesRead() {
+        return this.edgeCount;
+    }
+
+    // edges left once duplicates are dropped, -1 before the first build
+    public int uniqueEdgeCount() {
+        return this.offsets == null ? -1 : this.offsets[this.vertices.size()];
+    }
+
+    public long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    public double getReadSeconds() {
+        return this.readNanos / 1e9;
+    }
+
+    public double getBuildSeconds() {
+        return this.buildNanos / 1e9;
+    }
+
+    // parsing throughput, the sort and the representation build are not included
+    public double getEdgesPerSecond() {
+        return this.readNanos == 0 ? 0.0 : this.edgeCount / (this.readNanos / 1e9);
+    }
+
+    public String getReport() {
+        return String.format("Read %d edges (%d lines, %.1f MB) between %d vertices in %.3f s, %.0f edges/s; %s built in %.3f s",
+                this.edgeCount, this.linesRead, this.bytesRead / 1e6, this.vertices.size(), this.getReadSeconds(),
+                this.getEdgesPerSecond(),
+                this.offsets == null ? "nothing" : this.uniqueEdgeCount() + " unique edges", this.getBuildSeconds());
+    }
+
+    private void read(File file, boolean dimacs) throws IOException {
+        long start = System.nanoTime();
+        this.lineNumber = 0;
+        try (FileInputStream input = new FileInputStream(file)) {
+            FileChannel channel = input.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (true) {
+                int read = channel.read(buffer);
+                if (read > 0) {
+                    this.bytesRead += read;
+                }
+                byte[] bytes = buffer.array();
+                int limit = buffer.position();
+                int lineStart = 0;
+                for (int i = 0; i < limit; i++) {
+                    if (bytes[i] == '\n') {
+                        this.parseLine(bytes, lineStart, i, dimacs);
+                        lineStart = i + 1;
+                    }
+                }
+                if (read < 0) {
+                    if (lineStart < limit) {
+                        this.parseLine(bytes, lineStart, limit, dimacs);
+                    }
+                    break;
+                }
+                // keep the unfinished line for the next read, growing the buffer for lines longer than it
+                if (lineStart == 0 && limit == bytes.length) {
+                    buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length * 2));
+                    buffer.position(limit);
+                } else {
+                    buffer.flip();
+                    buffer.position(lineStart);
+                    buffer.compact();
+                }
+            }
+        }
+        this.offsets = null;
+        this.readNanos += System.nanoTime() - start;
+    }
+
+    private void parseLine(byte[] bytes, int from, int to, boolean dimacs) throws IOException {
+        this.lineNumber++;
+        this.linesRead++;
+        if (to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        this.cursor = from;
+        this.skipSeparators(bytes, to);
+        if (this.cursor == to) {
+            return;
+        }
+        byte first = bytes[this.cursor];
+        if (!dimacs) {
+            if (first == '#' || first == '%') {
+                return;
+            }
+            int source = this.intern(this.parseLong(bytes, to));
+            int target = this.intern(this.parseLong(bytes, to));
+            this.skipSeparators(bytes, to);
+            this.addEdge(source, target, this.cursor < to ? this.parseDouble(bytes, to) : 1.0);
+            return;
+        }
+
+        this.cursor++;
+        if (first == 'c') {
+            return;
+        }
+        if (first == 'p') {
+            this.skipSeparators(bytes, to);
+            // problem name, "sp" for shortest paths
+            while (this.cursor < to && !isSeparator(bytes[this.cursor])) {
+                this.cursor++;
+            }
+            long declaredVertices = this.parseLong(bytes, to);
+            long declaredArcs = this.parseLong(bytes, to);
+            if (this.edgeCount + declaredArcs > MAX_EDGE_COUNT) {
+                throw new IOException("DIMACS file declares " + declaredArcs + " arcs, more than "
+                        + MAX_EDGE_COUNT + " edges do not fit!");
+            }
+            this.ensureEdgeCapacity((int) (this.edgeCount + declaredArcs));
+            for (long id = 1; id <= declaredVertices; id++) {
+                this.intern(id);
+            }
+            return;
+        }
+        if (first != 'a') {
+            throw new IOException("Unexpected line " + this.lineNumber + " in DIMACS file!");
+        }
+        int source = this.intern(this.parseLong(bytes, to));
+        int target = this.intern(this.parseLong(bytes, to));
+        this.addEdge(source, target, this.parseDouble(bytes, to));
+    }
+
+    private void skipSeparators(byte[] bytes, int to) {
+        while (this.cursor < to && isSeparator(bytes[this.cursor])) {
+            this.cursor++;
+        }
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == '\t' || b == ',';
+    }
+
+    private long parseLong(byte[] bytes, int to) throws IOException {
+        this.skipSeparators(bytes, to);
+        boolean negative = this.cursor < to && bytes[this.cursor] == '-';
+        if (negative) {
+            this.cursor++;
+        }
+        int digitsStart = this.cursor;
+        long value = 0;
+        while (this.cursor < to && bytes[this.cursor] >= '0' && bytes[this.cursor] <= '9') {
+            value = value * 10 + (bytes[this.cursor++] - '0');
+        }
+        if (this.cursor == digitsStart || (this.cursor < to && !isSeparator(bytes[this.cursor]))) {
+            throw new IOException("Malformed number on line " + this.lineNumber + "!");
+        }
+        return negative ? -value : value;
+    }
+
+    // plain decimals with up to 15 significant digits are exact as digits / 10^k, anything else goes to Double.parseDouble
+    private double parseDouble(byte[] bytes, int to) throws IOException {
+        this.skipSeparators(bytes, to);
+        int start = this.cursor;
+        boolean negative = this.cursor < to && bytes[this.cursor] == '-';
+        if (negative || (this.cursor < to && bytes[this.cursor] == '+')) {
+            this.cursor++;
+        }
+        long digits = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        while (this.cursor < to) {
+            byte b = bytes[this.cursor];
+            if (b >= '0' && b <= '9') {
+                digits = digits * 10 + (b - '0');
+                digitCount++;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+            this.cursor++;
+        }
+        if (this.cursor == to || isSeparator(bytes[this.cursor])) {
+            if (digitCount == 0) {
+                throw new IOException("Malformed number on line " + this.lineNumber + "!");
+            }
+            if (digitCount <= 15) {
+                double value = digits / POWERS_OF_TEN[fractionDigits];
+                return negative ? -value : value;
+            }
+        }
+
+        while (this.cursor < to && !isSeparator(bytes[this.cursor])) {
+            this.cursor++;
+        }
+        try {
+            return Double.parseDouble(new String(bytes, start, this.cursor - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed number on line " + this.lineNumber + "!");
+        }
+    }
+
+    private int intern(long id) {
+        int index = this.ids.get(id);
+        if (index < 0) {
+            index = this.vertices.size();
+            this.ids.put(id, index);
+            this.vertices.add(this.vertexFactory.apply(id));
+        }
+        return index;
+    }
+
+    private void addEdge(int source, int target, double weight) throws IOException {
+        if (this.edgeCount == this.edgeSources.length) {
+            if (this.edgeCount == MAX_EDGE_COUNT) {
+                throw new IOException("More than " + MAX_EDGE_COUNT + " edges on line " + this.lineNumber + ", they do not fit!");
+            }
+            this.ensureEdgeCapacity((int) Math.min(MAX_EDGE_COUNT, this.edgeCount * 2L));
+        }
+        this.edgeSources[this.edgeCount] = source;
+        this.edgeTargets[this.edgeCount] = target;
+        this.edgeWeights[this.edgeCount] = weight;
+        this.edgeCount++;
+    }
+
+    private void ensureEdgeCapacity(int capacity) {
+        if (capacity > this.edgeSources.length) {
+            this.edgeSources = Arrays.copyOf(this.edgeSources, capacity);
+            this.edgeTargets = Arrays.copyOf(this.edgeTargets, capacity);
+            this.edgeWeights = Arrays.copyOf(this.edgeWeights, capacity);
+        }
+    }
+
+    // counting sort by source, every row sorted by target, then equal neighbours collapse into the lightest edge
+    private void build() {
+        if (this.offsets != null) {
+            return;
+        }
+        long start = System.nanoTime();
+        int vertexCount = this.vertices.size();
+        int[] rowOffsets = new int[vertexCount + 1];
+        for (int i = 0; i < this.edgeCount; i++) {
+            rowOffsets[this.edgeSources[i] + 1]++;
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            rowOffsets[i + 1] += rowOffsets[i];
+        }
+        int[] rowTargets = new int[this.edgeCount];
+        double[] rowWeights = new double[this.edgeCount];
+        int[] fill = Arrays.copyOf(rowOffsets, vertexCount);
+        for (int i = 0; i < this.edgeCount; i++) {
+            int position = fill[this.edgeSources[i]]++;
+            rowTargets[position] = this.edgeTargets[i];
+            rowWeights[position] = this.edgeWeights[i];
+        }
+
+        int write = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            int rowStart = rowOffsets[i];
+            int rowEnd = rowOffsets[i + 1];
+            sortRow(rowTargets, rowWeights, rowStart, rowEnd);
+            rowOffsets[i] = write;
+            for (int j = rowStart; j < rowEnd; j++) {
+                if (write > rowOffsets[i] && rowTargets[write - 1] == rowTargets[j]) {
+                    rowWeights[write - 1] = Math.min(rowWeights[write - 1], rowWeights[j]);
+                } else {
+                    rowTargets[write] = rowTargets[j];
+                    rowWeights[write] = rowWeights[j];
+                    write++;
+                }
+            }
+        }
+        rowOffsets[vertexCount] = write;
+
+        this.offsets = rowOffsets;
+        this.targets = write == rowTargets.length ? rowTargets : Arrays.copyOf(rowTargets, write);
+        this.weights = write == rowWeights.length ? rowWeights : Arrays.copyOf(rowWeights, write);
+        this.buildNanos += System.nanoTime() - start;
+    }
+
+    // insertion sort for short rows, index sort for long ones
+    private static void sortRow(int[] targets, double[] weights, int from, int to) {
+        if (to - from < 32) {
+            for (int i = from + 1; i < to; i++) {
+                int target = targets[i];
+                double weight = weights[i];
+                int j = i - 1;
+                while (j >= from && targets[j] > target) {
+                    targets[j + 1] = targets[j];
+                    weights[j + 1] = weights[j];
+                    j--;
+                }
+                targets[j + 1] = target;
+                weights[j + 1] = weight;
+            }
+            return;
+        }
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++) {
+            keys[i - from] = ((long) targets[i] << 32) | (i - from);
+        }
+        Arrays.sort(keys);
+        double[] rowWeights = Arrays.copyOfRange(weights, from, to);
+        for (int i = 0; i < keys.length; i++) {
+            targets[from + i] = (int) (keys[i] >>> 32);
+            weights[from + i] = rowWeights[(int) keys[i]];
+        }
+    }
+}
@@ -1,8 +1,22 @@
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 public class Graph<V> {
     private GraphRepresentation<V> graphRepresentation;
+    private Function<GraphRepresentation<V>, ShortestPathFinder<V>> shortestPathFinderFactory = Dijkstra::new;
+    private ShortestPathFinder<V> shortestPathFinder;
+    private Dijkstra<V> dijkstra;
+    private ShortestPathCache<V> shortestPathCache;
+    private IncrementalTopologicalOrder<V> topologicalOrder;
+    private Instrumentation instrumentation;
+    // copy of the graph for the parallel algorithms, rebuilt once the modification count moved on
+    private CompressedSparseRowRepresentation<V> frozenRepresentation;
+    private long frozenModificationCount;
+    private ParallelBreadthFirstSearch<V> parallelBreadthFirstSearch;
 
     public Graph() {
         this.graphRepresentation = new AdjacencyListRepresentation();
@@ -13,19 +27,56 @@ public class Graph<V> {
     }
 
     void addVertex(V vertex) {
-        this.graphRepresentation.addVertex(vertex);
+        if (this.topologicalOrder != null) {
+            this.topologicalOrder.addVertex(vertex);
+        } else {
+            this.graphRepresentation.addVertex(vertex);
+        }
     }
 
     void removeVertex(V vertex) {
-        this.graphRepresentation.removeVertex(vertex);
+        if (this.topologicalOrder != null) {
+            this.topologicalOrder.removeVertex(vertex);
+        } else {
+            this.graphRepresentation.removeVertex(vertex);
+        }
     }
 
     void addEdge(V vertexFrom, V vertexTo, double weight) {
-        this.graphRepresentation.addEdge(vertexFrom, vertexTo, weight);
+        if (this.topologicalOrder != null) {
+            this.topologicalOrder.addEdge(vertexFrom, vertexTo, weight);
+        } else {
+            this.graphRepresentation.addEdge(vertexFrom, vertexTo, weight);
+        }
+    }
+
+    // edge removals, vertex removals, vertex additions and edge additions as one validated change
+    void applyBatch(GraphBatch<V> batch) {
+        if (this.topologicalOrder != null) {
+            this.topologicalOrder.applyBatch(batch);
+        } else {
+            this.graphRepresentation.applyBatch(batch);
+        }
+    }
+
+    void addEdges(Collection<Edge<V>> edges) {
+        this.applyBatch(new GraphBatch<V>().addEdges(edges));
+    }
+
+    void removeEdges(Collection<Edge<V>> edges) {
+        this.applyBatch(new GraphBatch<V>().removeEdges(edges));
+    }
+
+    void removeVertices(Collection<V> vertices) {
+        this.applyBatch(new GraphBatch<V>().removeVertices(vertices));
     }
 
     void removeEdge(V vertexFrom, V vertexTo) {
-        this.graphRepresentation.removeEdge(vertexFrom, vertexTo);
+        if (this.topologicalOrder != null) {
+            this.topologicalOrder.removeEdge(vertexFrom, vertexTo);
+        } else {
+            this.graphRepresentation.removeEdge(vertexFrom, vertexTo);
+        }
     }
 
     List<V> getVertexList() {
@@ -53,7 +104,11 @@ public class Graph<V> {
     }
 
     void setEdgeWeight(V vertexFrom, V vertexTo, double weight) {
-        this.graphRepresentation.setEdgeWeight(vertexFrom, vertexTo, weight);
+        if (this.topologicalOrder != null) {
+            this.topologicalOrder.setEdgeWeight(vertexFrom, vertexTo, weight);
+        } else {
+            this.graphRepresentation.setEdgeWeight(vertexFrom, vertexTo, weight);
+        }
     }
 
     int vertexCount() {
@@ -65,22 +120,78 @@ public class Graph<V> {
     }
 
     public ArrayList<V> getParents(V vertex) {
+        GraphRepresentation<V> graph = this.graphRepresentation.snapshot();
         ArrayList<V> parents = new ArrayList<>();
-        List<V> vertices = this.getVertexList();
+        if (graph.hasIncomingEdges()) {
+            int vertexIndex = graph.getVertexIndex(vertex);
+            int parentCount = graph.parentCount(vertexIndex);
+            for (int i = 0; i < parentCount; i++) {
+                parents.add(graph.getVertexAt(graph.getParentIndex(vertexIndex, i)));
+            }
+            return parents;
+        }
+        List<V> vertices = graph.getVertexList();
         for (V currentVertex : vertices) {
-            if (this.hasEdge(currentVertex, vertex)) {
+            if (graph.hasEdge(currentVertex, vertex)) {
                 parents.add(currentVertex);
             }
         }
         return parents;
     }
 
+    // O(1) for undirected representations, otherwise every vertex's outgoing row is compared with its incoming row,
+    // both sorted by neighbour index with two counting sort passes instead of hashing every edge
     public boolean isUndirected() {
-        List<Edge<V>> edgeList = this.getEdgeList();
-        Set<Edge<V>> distinctEdges = new HashSet<>(edgeList);
-        for (Edge<V> edge : edgeList) {
-            Edge<V> flippedEdge = new Edge<>(edge.vertexTo, edge.vertexFrom, edge.weight);
-            if (!distinctEdges.contains(flippedEdge)) {
+        GraphRepresentation<V> graph = this.graphRepresentation.snapshot();
+        if (graph.isUndirected()) {
+            return true;
+        }
+        int bound = graph.vertexIndexBound();
+        int[] inOffsets = new int[bound + 1];
+        int[] outOffsets = new int[bound + 1];
+        for (int i = 0; i < bound; i++) {
+            int neighbourCount = graph.neighbourCount(i);
+            outOffsets[i + 1] = neighbourCount;
+            for (int j = 0; j < neighbourCount; j++) {
+                inOffsets[graph.getNeighbourIndex(i, j) + 1]++;
+            }
+        }
+        for (int i = 0; i < bound; i++) {
+            if (inOffsets[i + 1] != outOffsets[i + 1]) {
+                return false;
+            }
+            inOffsets[i + 1] += inOffsets[i];
+            outOffsets[i + 1] += outOffsets[i];
+        }
+
+        // filling incoming rows in source order leaves them sorted by source
+        int edgeCount = inOffsets[bound];
+        int[] sources = new int[edgeCount];
+        double[] inWeights = new double[edgeCount];
+        int[] fill = Arrays.copyOf(inOffsets, bound);
+        for (int i = 0; i < bound; i++) {
+            int neighbourCount = graph.neighbourCount(i);
+            for (int j = 0; j < neighbourCount; j++) {
+                int position = fill[graph.getNeighbourIndex(i, j)]++;
+                sources[position] = i;
+                inWeights[position] = graph.getNeighbourWeight(i, j);
+            }
+        }
+        // and transposing those again gives the outgoing rows sorted by target
+        int[] targets = new int[edgeCount];
+        double[] outWeights = new double[edgeCount];
+        fill = Arrays.copyOf(outOffsets, bound);
+        for (int i = 0; i < bound; i++) {
+            for (int position = inOffsets[i]; position < inOffsets[i + 1]; position++) {
+                int outPosition = fill[sources[position]]++;
+                targets[outPosition] = i;
+                outWeights[outPosition] = inWeights[position];
+            }
+        }
+
+        // same tolerance as Edge.equals
+        for (int position = 0; position < edgeCount; position++) {
+            if (sources[position] != targets[position] || Math.abs(inWeights[position] - outWeights[position]) >= 0.001) {
                 return false;
             }
         }
@@ -88,41 +199,42 @@ public class Graph<V> {
     }
 
     public List<V> getVerticesAtDistance(V vertex, int distance) {
+        GraphRepresentation<V> graph = this.graphRepresentation.snapshot();
         List<V> verticesAtDistance = new ArrayList<>();
+        int startIndex = graph.getVertexIndex(vertex);
         if (distance == 0) {
             verticesAtDistance.add(vertex);
             return verticesAtDistance;
         }
 
-        Set<V> visited = new HashSet<>();
-        LinkedList<V> queue = new LinkedList<>();
-        queue.add(vertex);
-        visited.add(vertex);
+        int bound = graph.vertexIndexBound();
+        boolean[] visited = new boolean[bound];
+        int[] queue = new int[bound];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = startIndex;
+        visited[startIndex] = true;
         int level = 0;
-        int currentLevelCount = 1;
-        int nextLevelCount = 0;
-
-        while (!queue.isEmpty()) {
-            V current = queue.remove();
-
-            List<V> neighbours = this.getVertexNeighbours(current);
-            for (V neighbour : neighbours) {
-                if (!visited.contains(neighbour)) {
+        int levelEnd = tail;
+
+        while (head < tail) {
+            int current = queue[head++];
+            int neighbourCount = graph.neighbourCount(current);
+            for (int i = 0; i < neighbourCount; i++) {
+                int neighbour = graph.getNeighbourIndex(current, i);
+                if (!visited[neighbour]) {
+                    visited[neighbour] = true;
                     if (level == distance - 1) {
-                        verticesAtDistance.add(neighbour);
+                        verticesAtDistance.add(graph.getVertexAt(neighbour));
                     } else {
-                        queue.add(neighbour);
-                        visited.add(neighbour);
-                        nextLevelCount++;
+                        queue[tail++] = neighbour;
                     }
                 }
             }
 
-            currentLevelCount--;
-            if (currentLevelCount == 0) {
+            if (head == levelEnd) {
                 level++;
-                currentLevelCount = nextLevelCount;
-                nextLevelCount = 0;
+                levelEnd = tail;
             }
 
             if (level == distance) {
@@ -134,116 +246,279 @@ public class Graph<V> {
 
     // strongly connected
     public boolean isConnected() {
-        List<V> vertices = this.getVertexList();
-        Set<V> allVerticesSet = new HashSet<>(vertices);
-        for (V vertex : vertices) {
-            Set<V> reachedVertices = BreadthFirstSearch(vertex);
-            if (!reachedVertices.equals(allVerticesSet)) {
-                return false;
-            }
-        }
-        return true;
+        return this.getStronglyConnectedComponents().getComponentCount() <= 1;
     }
 
     public Set<V> BreadthFirstSearch(V vertex) {
-        Set<V> reached = new HashSet<>();
-        LinkedList<V> queue = new LinkedList<>();
-        queue.add(vertex);
-        reached.add(vertex);
-        while (!queue.isEmpty()) {
-            V currentVertex = queue.remove();
-            List<V> currentNeighbours = this.getVertexNeighbours(currentVertex);
-            for (V neighbour : currentNeighbours) {
-                if (!reached.contains(neighbour)) {
-                    queue.add(neighbour);
-                    reached.add(neighbour);
+        GraphRepresentation<V> graph = this.graphRepresentation.snapshot();
+        QueryMetrics metrics = this.instrumentation == null ? null : new QueryMetrics("bfs");
+        long start = metrics == null ? 0 : System.nanoTime();
+        int startIndex = graph.getVertexIndex(vertex);
+        int bound = graph.vertexIndexBound();
+        boolean[] reached = new boolean[bound];
+        int[] queue = new int[bound];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = startIndex;
+        reached[startIndex] = true;
+        // the queue holds one level after another, without metrics the level end is never hit
+        int levelEnd = metrics == null ? -1 : 0;
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.PREPARE, start);
+        }
+        while (head < tail) {
+            if (head == levelEnd) {
+                metrics.addFrontierSize(tail - head);
+                levelEnd = tail;
+            }
+            int currentVertex = queue[head++];
+            int neighbourCount = graph.neighbourCount(currentVertex);
+            for (int i = 0; i < neighbourCount; i++) {
+                int neighbour = graph.getNeighbourIndex(currentVertex, i);
+                if (!reached[neighbour]) {
+                    queue[tail++] = neighbour;
+                    reached[neighbour] = true;
                 }
             }
         }
-        return reached;
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.SEARCH, start);
+        }
+        Set<V> reachedVertices = new HashSet<>(tail * 2);
+        for (int i = 0; i < tail; i++) {
+            reachedVertices.add(graph.getVertexAt(queue[i]));
+        }
+        if (metrics != null) {
+            metrics.endPhase(QueryMetrics.Phase.RESULT, start);
+            metrics.verticesSettled = tail;
+            for (int i = 0; i < tail; i++) {
+                metrics.edgesRelaxed += graph.neighbourCount(queue[i]);
+            }
+            this.instrumentation.queryFinished(metrics);
+        }
+        return reachedVertices;
+    }
+
+    // runs on a snapshot of the current graph, worthwhile for large low diameter graphs. The snapshot is kept
+    // until the graph changes, so only the first search after a change pays for the copy.
+    public BreadthFirstSearchResult<V> parallelBreadthFirstSearch(V vertex) {
+        CompressedSparseRowRepresentation<V> frozen = this.frozenRepresentation();
+        if (this.parallelBreadthFirstSearch == null || this.parallelBreadthFirstSearch.getGraph() != frozen) {
+            this.parallelBreadthFirstSearch = new ParallelBreadthFirstSearch<>(frozen);
+        }
+        this.parallelBreadthFirstSearch.setInstrumentation(this.instrumentation);
+        return this.parallelBreadthFirstSearch.search(vertex);
     }
 
     public boolean isCyclic() {
-        List<V> vertices = this.getVertexList();
-        Set<V> visitedVertices = new HashSet<>();
-        for (int i = 0; i < vertices.size(); i++) {
-            if (!visitedVertices.contains(vertices.get(i))) {
-                boolean hasCycle = hasCycleReachableFrom(vertices.get(i), visitedVertices, new HashSet<>());
-                if (hasCycle) {
+        if (this.topologicalOrder != null) {
+            return this.topologicalOrder.isCyclic();
+        }
+        GraphRepresentation<V> graph = this.graphRepresentation.snapshot();
+        int bound = graph.vertexIndexBound();
+        // 0 - not visited, 1 - on the current DFS path, 2 - finished
+        byte[] state = new byte[bound];
+        int[] callVertices = new int[bound];
+        int[] callPositions = new int[bound];
+        for (int i = 0; i < bound; i++) {
+            if (state[i] == 0 && graph.getVertexAt(i) != null) {
+                if (hasCycleReachableFrom(graph, i, state, callVertices, callPositions)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // DFS with an explicit stack like fillStackDFS, deep graphs would overflow the call stack
+    private boolean hasCycleReachableFrom(GraphRepresentation<V> graph, int vertexIndex, byte[] state, int[] callVertices,
+                                          int[] callPositions) {
+        int callTop = 0;
+        callVertices[0] = vertexIndex;
+        callPositions[0] = 0;
+        state[vertexIndex] = 1;
+        while (callTop >= 0) {
+            int current = callVertices[callTop];
+            int position = callPositions[callTop];
+            if (position < graph.neighbourCount(current)) {
+                callPositions[callTop]++;
+                int neighbour = graph.getNeighbourIndex(current, position);
+                if (state[neighbour] == 0) {
+                    state[neighbour] = 1;
+                    callTop++;
+                    callVertices[callTop] = neighbour;
+                    callPositions[callTop] = 0;
+                } else if (state[neighbour] == 1) {
                     return true;
                 }
+            } else {
+                state[current] = 2;
+                callTop--;
             }
         }
         return false;
     }
 
     public boolean hasCycleReachableFrom(V vertex, Set<V> visited, Set<V> active) {
+        GraphRepresentation<V> graph = this.graphRepresentation.snapshot();
+        int bound = graph.vertexIndexBound();
+        int[] callVertices = new int[bound];
+        int[] callPositions = new int[bound];
+        int callTop = 0;
+        callVertices[0] = graph.getVertexIndex(vertex);
         visited.add(vertex);
         active.add(vertex);
-        List<V> neighbours = this.getVertexNeighbours(vertex);
-        for (V neighbour : neighbours) {
-            if (!visited.contains(neighbour)) {
-                boolean hasCycle = hasCycleReachableFrom(neighbour, visited, active);
-                if (hasCycle) {
+        while (callTop >= 0) {
+            int current = callVertices[callTop];
+            int position = callPositions[callTop];
+            if (position < graph.neighbourCount(current)) {
+                callPositions[callTop]++;
+                int neighbourIndex = graph.getNeighbourIndex(current, position);
+                V neighbour = graph.getVertexAt(neighbourIndex);
+                if (visited.add(neighbour)) {
+                    active.add(neighbour);
+                    callTop++;
+                    callVertices[callTop] = neighbourIndex;
+                    callPositions[callTop] = 0;
+                } else if (active.contains(neighbour)) {
                     return true;
                 }
-            } else if (active.contains(neighbour)) {
-                return true;
+            } else {
+                active.remove(graph.getVertexAt(current));
+                callTop--;
             }
         }
-        active.remove(vertex);
         return false;
     }
 
     public double shortestPathLength(V startVertex, V endVertex) {
-        Path<V> shortestPath = this.getShortestPath(startVertex, endVertex);
-        if (shortestPath == null) {
+        double length = this.shortestPathCache == null
+                ? this.getShortestPathFinder().getShortestPathLength(startVertex, endVertex)
+                : this.shortestPathCache.getLength(startVertex, endVertex,
+                        () -> this.getShortestPathFinder().getShortestPathLength(startVertex, endVertex));
+        if (length == Double.POSITIVE_INFINITY) {
             throw new IllegalArgumentException("There is no path between the vertices!");
         }
-        return shortestPath.getLength();
+        return length;
     }
 
-    // Dijkstra's algorithm, positive weights assumed
+    // Dijkstra's algorithm unless another finder is set, positive weights assumed
     public Path<V> getShortestPath(V startVertex, V endVertex) {
-        Dijkstra dijkstra = new Dijkstra(this.graphRepresentation);
-        List<Path<V>> paths = dijkstra.getShortestPaths(startVertex);
-        for (Path<V> path : paths) {
-            if (path.getEndVertex() == endVertex) {
-                return path;
-            }
+        if (this.shortestPathCache != null) {
+            return this.shortestPathCache.getPath(startVertex, endVertex,
+                    () -> this.getShortestPathFinder().getShortestPath(startVertex, endVertex));
         }
-        return null;
+        return this.getShortestPathFinder().getShortestPath(startVertex, endVertex);
     }
 
-    // gets longest path in terms of number of edges in the path
-    public int graphDiameter() {
-        if (this.isCyclic()) {
-            throw new IllegalStateException("Graph is cyclic! There are infinitely long paths");
-        }
-        List<V> vertices = this.getVertexList();
-        int currentLongestPath = 0;
-        for(V startVertex : vertices) {
-            int longestPathFromVertex = getVertexRadius(startVertex);
-            if(longestPathFromVertex > currentLongestPath) {
-                currentLongestPath = longestPathFromVertex;
-            }
+    public ShortestPathTree<V> getShortestPathTree(V startVertex) {
+        if (this.dijkstra == null) {
+            this.dijkstra = new Dijkstra<>(this.graphRepresentation);
+            this.dijkstra.setInstrumentation(this.instrumentation);
+        }
+        if (this.shortestPathCache != null) {
+            return this.shortestPathCache.getTree(startVertex, () -> this.dijkstra.getShortestPathTree(startVertex));
         }
-        return currentLongestPath;
+        return this.dijkstra.getShortestPathTree(startVertex);
     }
 
+    // caches the results of getShortestPath, shortestPathLength and getShortestPathTree until the graph changes
+    public void enableShortestPathCache(int capacity) {
+        this.shortestPathCache = new ShortestPathCache<>(this.graphRepresentation, capacity);
+    }
+
+    public void disableShortestPathCache() {
+        this.shortestPathCache = null;
+    }
+
+    // null unless enabled
+    public ShortestPathCache<V> getShortestPathCache() {
+        return this.shortestPathCache;
+    }
+
+    // e.g. BidirectionalDijkstra::new or representation -> new AStar<>(representation, heuristic)
+    public void setShortestPathFinder(Function<GraphRepresentation<V>, ShortestPathFinder<V>> shortestPathFinderFactory) {
+        this.shortestPathFinderFactory = shortestPathFinderFactory;
+        this.shortestPathFinder = null;
+    }
+
+    // counters and phase times of every following BFS and shortest path query go to instrumentation, e.g. a
+    // MetricsRecorder, null turns it off again. Queries are neither timed nor counted while it is off.
+    public void setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+        if (this.shortestPathFinder != null) {
+            this.shortestPathFinder.setInstrumentation(instrumentation);
+        }
+        if (this.dijkstra != null) {
+            this.dijkstra.setInstrumentation(instrumentation);
+        }
+    }
+
+    public Instrumentation getInstrumentation() {
+        return this.instrumentation;
+    }
+
+    // longest path in edges, the graph must be acyclic
+    public int graphDiameter() {
+        return this.getLongestPaths().getDiameter();
+    }
+
+    // longest path in edges starting at vertex, only the part of the graph reachable from it is searched and has
+    // to be acyclic
     public int getVertexRadius(V vertex) {
-        int currentLongest = 0;
-        List<V> neighbours = this.getVertexNeighbours(vertex);
-        for(V neighbour : neighbours) {
-            int neighbourRadius = getVertexRadius(neighbour);
-            if(neighbourRadius + 1 > currentLongest) {
-                currentLongest = neighbourRadius + 1;
+        GraphRepresentation<V> graph = this.graphRepresentation.snapshot();
+        int bound = graph.vertexIndexBound();
+        // radius + 1 of finished vertices, 0 - not visited, -1 - on the current DFS path
+        int[] radii = new int[bound];
+        int[] callVertices = new int[bound];
+        int[] callPositions = new int[bound];
+        int callTop = 0;
+        int startIndex = graph.getVertexIndex(vertex);
+        callVertices[0] = startIndex;
+        radii[startIndex] = -1;
+        while (callTop >= 0) {
+            int current = callVertices[callTop];
+            int position = callPositions[callTop];
+            if (position < graph.neighbourCount(current)) {
+                callPositions[callTop]++;
+                int neighbour = graph.getNeighbourIndex(current, position);
+                if (radii[neighbour] == 0) {
+                    radii[neighbour] = -1;
+                    callTop++;
+                    callVertices[callTop] = neighbour;
+                    callPositions[callTop] = 0;
+                } else if (radii[neighbour] < 0) {
+                    throw new IllegalStateException("Graph is cyclic! There are infinitely long paths");
+                }
+            } else {
+                int radius = 1;
+                int neighbourCount = graph.neighbourCount(current);
+                for (int i = 0; i < neighbourCount; i++) {
+                    radius = Math.max(radius, radii[graph.getNeighbourIndex(current, i)] + 1);
+                }
+                radii[current] = radius;
+                callTop--;
             }
         }
-        return currentLongest;
+        return radii[startIndex] - 1;
+    }
+
+    // edge and weight radii of every vertex in one pass, throws IllegalStateException for cyclic graphs
+    public LongestPaths<V> getLongestPaths() {
+        return new LongestPaths<>(this.graphRepresentation.snapshot());
+    }
+
+    // same results, each topological level of a snapshot is processed concurrently, the snapshot is shared with
+    // parallelBreadthFirstSearch
+    public LongestPaths<V> getLongestPaths(ForkJoinPool pool) {
+        return new LongestPaths<>(this.frozenRepresentation(), pool);
     }
 
+    // representations tracking incoming edges are inverted as a read-only view without copying
     public Graph<V> getInvertedGraph() {
+        if (this.graphRepresentation.hasIncomingEdges()) {
+            return new Graph<>(new TransposedRepresentation<>(this.graphRepresentation));
+        }
         Class<? extends GraphRepresentation> representationClass = this.graphRepresentation.getClass();
         GraphRepresentation<V> newRepresentation;
         try {
@@ -252,59 +527,123 @@ public class Graph<V> {
             throw new RuntimeException();
         }
         Graph<V> newGraph = new Graph<>(newRepresentation);
-        List<V> vertices = this.getVertexList();
+        GraphRepresentation<V> graph = this.graphRepresentation.snapshot();
+        List<V> vertices = graph.getVertexList();
         for(V vertex : vertices) {
             newGraph.addVertex(vertex);
         }
-        List<Edge<V>> edges = this.getEdgeList();
+        List<Edge<V>> edges = graph.getEdgeList();
         for(Edge<V> edge : edges) {
             newGraph.addEdge(edge.vertexTo, edge.vertexFrom, edge.weight);
         }
         return newGraph;
     }
 
-    // achieved using Kosaraju's algorithm
     public int getStronglyConnectedComponentCount() {
-        Deque<V> orderStack = new LinkedList<>();
-        Set<V> visited = new HashSet<>();
-        List<V> vertices = this.getVertexList();
-        for(V vertex : vertices) {
-            if(!visited.contains(vertex)) {
-                fillStackDFS(vertex, orderStack, visited);
-            }
-        }
-        Graph<V> invertedGraph = this.getInvertedGraph();
-        int componentCount = 0;
-        visited.clear();
-        while(!orderStack.isEmpty()) {
-            V nextVertex = orderStack.pop();
-            if(!visited.contains(nextVertex)) {
-                invertedGraph.depthFirstSearch(nextVertex, visited);
-                componentCount++;
-            }
-        }
-        return componentCount;
+        return this.getStronglyConnectedComponents().getComponentCount();
     }
 
+    // component id of every vertex and the condensation, computed on the current graph
+    public StronglyConnectedComponents<V> getStronglyConnectedComponents() {
+        return new StronglyConnectedComponents<>(this.graphRepresentation.snapshot());
+    }
+
+    // pushes every vertex reachable from vertex in DFS finishing order
     public void fillStackDFS(V vertex, Deque<V> orderStack, Set<V> visited) {
+        GraphRepresentation<V> graph = this.graphRepresentation.snapshot();
+        int bound = graph.vertexIndexBound();
+        int[] callVertices = new int[bound];
+        int[] callPositions = new int[bound];
+        int callTop = 0;
+        callVertices[0] = graph.getVertexIndex(vertex);
         visited.add(vertex);
-        List<V> neighbours = this.getVertexNeighbours(vertex);
-        for(V neighbour : neighbours) {
-            if(!visited.contains(neighbour)) {
-                fillStackDFS(neighbour, orderStack, visited);
+        while (callTop >= 0) {
+            int current = callVertices[callTop];
+            int position = callPositions[callTop];
+            if (position < graph.neighbourCount(current)) {
+                callPositions[callTop]++;
+                int neighbourIndex = graph.getNeighbourIndex(current, position);
+                if (visited.add(graph.getVertexAt(neighbourIndex))) {
+                    callTop++;
+                    callVertices[callTop] = neighbourIndex;
+                    callPositions[callTop] = 0;
+                }
+            } else {
+                orderStack.push(graph.getVertexAt(current));
+                callTop--;
             }
         }
-        orderStack.push(vertex);
     }
 
     public void depthFirstSearch(V vertex, Set<V> visited) {
-        visited.add(vertex);
-        List<V> neighbours = getVertexNeighbours(vertex);
-        for(V neighbour : neighbours) {
-            if(!visited.contains(neighbour)) {
-                depthFirstSearch(neighbour, visited);
-            }
+        fillStackDFS(vertex, new ArrayDeque<>(), visited);
+    }
+
+    // keeps a topological order up to date on every change, addEdge then rejects edges closing a cycle
+    // with IllegalArgumentException and isCyclic no longer searches the graph
+    public void enableIncrementalTopologicalOrder() {
+        IncrementalTopologicalOrder<V> order = new IncrementalTopologicalOrder<>(this.graphRepresentation);
+        if (order.isCyclic()) {
+            throw new IllegalStateException("Graph is cyclic!");
+        }
+        this.topologicalOrder = order;
+    }
+
+    public void disableIncrementalTopologicalOrder() {
+        this.topologicalOrder = null;
+    }
+
+    public List<V> getTopologicalOrder() {
+        if (this.topologicalOrder != null) {
+            return this.topologicalOrder.getOrder();
+        }
+        return new IncrementalTopologicalOrder<>(this.graphRepresentation.snapshot()).getOrder();
+    }
+
+    // snapshot for read-heavy workloads, the returned graph rejects modifications
+    public Graph<V> freeze() {
+        return new Graph<>(new CompressedSparseRowRepresentation<>(this.graphRepresentation.snapshot()));
+    }
+
+    // consistent read-only view for queries running next to a writer, O(1) over a ConcurrentGraphRepresentation,
+    // a frozen copy otherwise
+    public Graph<V> snapshot() {
+        if (this.graphRepresentation instanceof ConcurrentGraphRepresentation) {
+            return new Graph<>(((ConcurrentGraphRepresentation<V>) this.graphRepresentation).snapshot());
+        }
+        return this.freeze();
+    }
+
+    // writes a frozen copy in BinaryGraphFormat
+    public void save(File file, VertexCodec<V> codec) throws IOException {
+        BinaryGraphFormat.write(this.graphRepresentation.snapshot(), file, codec);
+    }
+
+    // maps a file written by save, the returned graph rejects modifications
+    public static <V> Graph<V> load(File file, VertexCodec<V> codec) throws IOException {
+        return new Graph<>(BinaryGraphFormat.open(file, codec));
+    }
+
+    // the finder and its search buffers are kept between queries
+    public ShortestPathFinder<V> getShortestPathFinder() {
+        if (this.shortestPathFinder == null) {
+            this.shortestPathFinder = this.shortestPathFinderFactory.apply(this.graphRepresentation);
+            this.shortestPathFinder.setInstrumentation(this.instrumentation);
+        }
+        return this.shortestPathFinder;
+    }
+
+    private CompressedSparseRowRepresentation<V> frozenRepresentation() {
+        GraphRepresentation<V> graph = this.graphRepresentation.snapshot();
+        if (this.graphRepresentation instanceof CompressedSparseRowRepresentation) {
+            return (CompressedSparseRowRepresentation<V>) this.graphRepresentation;
+        }
+        long modificationCount = graph.getModificationCount();
+        if (this.frozenRepresentation == null || this.frozenModificationCount != modificationCount) {
+            this.frozenRepresentation = new CompressedSparseRowRepresentation<>(graph);
+            this.frozenModificationCount = modificationCount;
         }
+        return this.frozenRepresentation;
     }
 
     public GraphRepresentation<V> getRepresentation() {
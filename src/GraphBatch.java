@@ -0,0 +1,148 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+// changes applied together by GraphRepresentation.applyBatch, always in this order whatever order they were recorded in:
+// edge removals, vertex removals, vertex additions, edge additions. Removing what does not exist is ignored like
+// removeEdge does, a batch adding a null or existing vertex, an existing edge, or an edge without both ends, is rejected
+// as a whole
+public class GraphBatch<V> {
+    private final List<Edge<V>> edgesToRemove = new ArrayList<>();
+    private final List<V> verticesToRemove = new ArrayList<>();
+    private final List<V> verticesToAdd = new ArrayList<>();
+    private final List<Edge<V>> edgesToAdd = new ArrayList<>();
+
+    private static final class Pair {
+        final Object from;
+        final Object to;
+        final boolean isUndirected;
+
+        Pair(Object from, Object to, boolean isUndirected) {
+            this.from = from;
+            this.to = to;
+            this.isUndirected = isUndirected;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Pair)) return false;
+            Pair pair = (Pair) o;
+            return (from.equals(pair.from) && to.equals(pair.to))
+                    || (isUndirected && from.equals(pair.to) && to.equals(pair.from));
+        }
+
+        @Override
+        public int hashCode() {
+            return isUndirected ? from.hashCode() + to.hashCode() : Objects.hash(from, to);
+        }
+    }
+
+    public GraphBatch<V> addVertex(V vertex) {
+        this.verticesToAdd.add(vertex);
+        return this;
+    }
+
+    public GraphBatch<V> addVertices(Collection<V> vertices) {
+        this.verticesToAdd.addAll(vertices);
+        return this;
+    }
+
+    public GraphBatch<V> removeVertex(V vertex) {
+        this.verticesToRemove.add(vertex);
+        return this;
+    }
+
+    public GraphBatch<V> removeVertices(Collection<V> vertices) {
+        this.verticesToRemove.addAll(vertices);
+        return this;
+    }
+
+    public GraphBatch<V> addEdge(V vertexFrom, V vertexTo, double weight) {
+        this.edgesToAdd.add(new Edge<>(vertexFrom, vertexTo, weight));
+        return this;
+    }
+
+    public GraphBatch<V> addEdges(Collection<Edge<V>> edges) {
+        this.edgesToAdd.addAll(edges);
+        return this;
+    }
+
+    public GraphBatch<V> removeEdge(V vertexFrom, V vertexTo) {
+        this.edgesToRemove.add(new Edge<>(vertexFrom, vertexTo, 0.0));
+        return this;
+    }
+
+    // weights are ignored
+    public GraphBatch<V> removeEdges(Collection<Edge<V>> edges) {
+        this.edgesToRemove.addAll(edges);
+        return this;
+    }
+
+    public List<Edge<V>> getEdgesToRemove() {
+        return Collections.unmodifiableList(this.edgesToRemove);
+    }
+
+    public List<V> getVerticesToRemove() {
+        return Collections.unmodifiableList(this.verticesToRemove);
+    }
+
+    public List<V> getVerticesToAdd() {
+        return Collections.unmodifiableList(this.verticesToAdd);
+    }
+
+    public List<Edge<V>> getEdgesToAdd() {
+        return Collections.unmodifiableList(this.edgesToAdd);
+    }
+
+    public int size() {
+        return this.edgesToRemove.size() + this.verticesToRemove.size() + this.verticesToAdd.size() + this.edgesToAdd.size();
+    }
+
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    // checks the whole batch against the graph before anything is changed, throws IllegalArgumentException on the first problem
+    public void validate(GraphRepresentation<V> graph) {
+        boolean isUndirected = graph.isUndirected();
+        Set<V> removedVertices = new HashSet<>();
+        for (V vertex : this.verticesToRemove) {
+            if (graph.hasVertex(vertex)) {
+                removedVertices.add(vertex);
+            }
+        }
+        Set<V> addedVertices = new HashSet<>();
+        for (V vertex : this.verticesToAdd) {
+            if (vertex == null) {
+                throw new IllegalArgumentException("Vertex must not be null!");
+            }
+            if ((graph.hasVertex(vertex) && !removedVertices.contains(vertex)) || !addedVertices.add(vertex)) {
+                throw new IllegalArgumentException("Vertex already exists!");
+            }
+        }
+
+        Set<Pair> removedEdges = new HashSet<>();
+        for (Edge<V> edge : this.edgesToRemove) {
+            removedEdges.add(new Pair(edge.vertexFrom, edge.vertexTo, isUndirected));
+        }
+        Set<Pair> addedEdges = new HashSet<>();
+        for (Edge<V> edge : this.edgesToAdd) {
+            boolean fromIsOld = !addedVertices.contains(edge.vertexFrom);
+            boolean toIsOld = !addedVertices.contains(edge.vertexTo);
+            if ((fromIsOld && (!graph.hasVertex(edge.vertexFrom) || removedVertices.contains(edge.vertexFrom)))
+                    || (toIsOld && (!graph.hasVertex(edge.vertexTo) || removedVertices.contains(edge.vertexTo)))) {
+                throw new IllegalArgumentException("Not both vertices exist!");
+            }
+            Pair pair = new Pair(edge.vertexFrom, edge.vertexTo, isUndirected);
+            boolean exists = fromIsOld && toIsOld && graph.hasEdge(edge.vertexFrom, edge.vertexTo) && !removedEdges.contains(pair);
+            if (exists || !addedEdges.add(pair)) {
+                throw new IllegalArgumentException("Edge already exists!");
+            }
+        }
+    }
+}
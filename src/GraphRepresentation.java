@@ -1,3 +1,4 @@
+import java.util.Collection;
 import java.util.List;
 
 public interface GraphRepresentation<V> {
@@ -14,4 +15,99 @@ public interface GraphRepresentation<V> {
     void setEdgeWeight(V vertexFrom, V vertexTo, double weight);
     int vertexCount();
     void print();
+    // changes whenever a vertex or an edge is added, removed or reweighted
+    long getModificationCount();
+
+    // index based access, vertex indexes are in [0, vertexIndexBound()) and stay valid until the next modification
+    int getVertexIndex(V vertex);
+    V getVertexAt(int vertexIndex);
+    int vertexIndexBound();
+    int neighbourCount(int vertexIndex);
+    int getNeighbourIndex(int vertexIndex, int position);
+    double getNeighbourWeight(int vertexIndex, int position);
+
+    // the batch is validated as a whole first, so a rejected batch leaves the representation untouched
+    default void applyBatch(GraphBatch<V> batch) {
+        batch.validate(this);
+        for (Edge<V> edge : batch.getEdgesToRemove()) {
+            if (this.hasVertex(edge.vertexFrom) && this.hasVertex(edge.vertexTo)) {
+                this.removeEdge(edge.vertexFrom, edge.vertexTo);
+            }
+        }
+        for (V vertex : batch.getVerticesToRemove()) {
+            if (this.hasVertex(vertex)) {
+                this.removeVertex(vertex);
+            }
+        }
+        for (V vertex : batch.getVerticesToAdd()) {
+            this.addVertex(vertex);
+        }
+        for (Edge<V> edge : batch.getEdgesToAdd()) {
+            this.addEdge(edge.vertexFrom, edge.vertexTo, edge.weight);
+        }
+    }
+
+    default void addEdges(Collection<Edge<V>> edges) {
+        this.applyBatch(new GraphBatch<V>().addEdges(edges));
+    }
+
+    // weights are ignored
+    default void removeEdges(Collection<Edge<V>> edges) {
+        this.applyBatch(new GraphBatch<V>().removeEdges(edges));
+    }
+
+    default void removeVertices(Collection<V> vertices) {
+        this.applyBatch(new GraphBatch<V>().removeVertices(vertices));
+    }
+
+    // a view that stays the same for one query, Graph runs every query on one. Representations that other threads
+    // modify while it runs return an immutable snapshot, the others return themselves.
+    default GraphRepresentation<V> snapshot() {
+        return this;
+    }
+
+    // true when every edge is stored once and walked from both ends, a directed representation may still hold a symmetric graph
+    default boolean isUndirected() {
+        return false;
+    }
+
+    // incoming edges, only available when hasIncomingEdges() is true
+    default boolean hasIncomingEdges() {
+        return false;
+    }
+
+    default int parentCount(int vertexIndex) {
+        throw new UnsupportedOperationException("Incoming edges are not tracked!");
+    }
+
+    default int getParentIndex(int vertexIndex, int position) {
+        throw new UnsupportedOperationException("Incoming edges are not tracked!");
+    }
+
+    default double getParentWeight(int vertexIndex, int position) {
+        throw new UnsupportedOperationException("Incoming edges are not tracked!");
+    }
+
+    default void forEachNeighbour(int vertexIndex, IndexNeighbourVisitor visitor) {
+        int count = this.neighbourCount(vertexIndex);
+        for (int i = 0; i < count; i++) {
+            visitor.visit(this.getNeighbourIndex(vertexIndex, i), this.getNeighbourWeight(vertexIndex, i));
+        }
+    }
+
+    default void forEachNeighbour(V vertex, NeighbourVisitor<V> visitor) {
+        int vertexIndex = this.getVertexIndex(vertex);
+        int count = this.neighbourCount(vertexIndex);
+        for (int i = 0; i < count; i++) {
+            visitor.visit(this.getVertexAt(this.getNeighbourIndex(vertexIndex, i)), this.getNeighbourWeight(vertexIndex, i));
+        }
+    }
+
+    interface IndexNeighbourVisitor {
+        void visit(int neighbourIndex, double weight);
+    }
+
+    interface NeighbourVisitor<V> {
+        void visit(V neighbour, double weight);
+    }
 }
@@ -0,0 +1,4 @@
+// lower bound on the distance between two vertices, used by AStar
+public interface Heuristic<V> {
+    double estimate(V vertex, V target);
+}
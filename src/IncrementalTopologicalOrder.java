@@ -0,0 +1,377 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// topological order kept up to date while the graph changes through it. An edge x -> y that goes against the order
+// is handled as in Marchetti-Spaccamela et al.: a forward search from y limited to positions up to x's finds either
+// x (a cycle, the edge is rejected) or the vertices to move right behind x, only positions between y and x shift.
+// Changes made to the representation directly are noticed through its modification count and cost a full rebuild.
+public class IncrementalTopologicalOrder<V> {
+    private final GraphRepresentation<V> graph;
+    // null for positions of removed vertices until the next compaction
+    private final ArrayList<V> order = new ArrayList<>();
+    private final HashMap<V, Integer> positions = new HashMap<>();
+    private int holeCount;
+    // only when the representation was made cyclic directly, edges added through this class never close a cycle
+    private boolean isCyclic;
+    private long version;
+
+    public IncrementalTopologicalOrder(GraphRepresentation<V> graphRepresentation) {
+        this.graph = graphRepresentation;
+        this.rebuild();
+    }
+
+    public void addVertex(V vertex) {
+        this.ensureCurrent();
+        this.graph.addVertex(vertex);
+        this.append(vertex);
+        this.version = this.graph.getModificationCount();
+    }
+
+    public void removeVertex(V vertex) {
+        this.ensureCurrent();
+        this.graph.removeVertex(vertex);
+        this.drop(vertex);
+        this.version = this.graph.getModificationCount();
+    }
+
+    // throws IllegalArgumentException without touching the graph when the edge would close a cycle
+    public void addEdge(V vertexFrom, V vertexTo, double weight) {
+        this.ensureCurrent();
+        if (!this.isCyclic && this.graph.hasVertex(vertexFrom) && this.graph.hasVertex(vertexTo)) {
+            this.reorder(vertexFrom, vertexTo);
+        }
+        this.graph.addEdge(vertexFrom, vertexTo, weight);
+        this.version = this.graph.getModificationCount();
+    }
+
+    // a batch adding edges is checked for cycles as a whole with one pass over the graph as it will be,
+    // and the order found there replaces the current one. Rejected batches leave the graph untouched
+    public void applyBatch(GraphBatch<V> batch) {
+        this.ensureCurrent();
+        if (this.isCyclic) {
+            this.graph.applyBatch(batch);
+            this.rebuild();
+            return;
+        }
+        if (!batch.getEdgesToAdd().isEmpty()) {
+            batch.validate(this.graph);
+            List<V> newOrder = this.orderAfter(batch);
+            if (newOrder == null) {
+                throw new IllegalArgumentException("Batch would create a cycle!");
+            }
+            this.graph.applyBatch(batch);
+            this.order.clear();
+            this.positions.clear();
+            for (V vertex : newOrder) {
+                this.append(vertex);
+            }
+            this.holeCount = 0;
+            this.version = this.graph.getModificationCount();
+            return;
+        }
+        // removals keep the order valid, new vertices without edges can go anywhere
+        this.graph.applyBatch(batch);
+        for (V vertex : batch.getVerticesToRemove()) {
+            this.drop(vertex);
+        }
+        for (V vertex : batch.getVerticesToAdd()) {
+            this.append(vertex);
+        }
+        this.version = this.graph.getModificationCount();
+    }
+
+    public void removeEdge(V vertexFrom, V vertexTo) {
+        this.ensureCurrent();
+        this.graph.removeEdge(vertexFrom, vertexTo);
+        this.version = this.graph.getModificationCount();
+    }
+
+    public void setEdgeWeight(V vertexFrom, V vertexTo, double weight) {
+        this.ensureCurrent();
+        this.graph.setEdgeWeight(vertexFrom, vertexTo, weight);
+        this.version = this.graph.getModificationCount();
+    }
+
+    public boolean isCyclic() {
+        this.ensureCurrent();
+        return this.isCyclic;
+    }
+
+    // true when vertexFrom comes before vertexTo in the current order
+    public boolean precedes(V vertexFrom, V vertexTo) {
+        this.ensureAcyclic();
+        Integer positionFrom = this.positions.get(vertexFrom);
+        Integer positionTo = this.positions.get(vertexTo);
+        if (positionFrom == null || positionTo == null) {
+            throw new IllegalArgumentException("Vertex does not exist!");
+        }
+        return positionFrom < positionTo;
+    }
+
+    public List<V> getOrder() {
+        this.ensureAcyclic();
+        List<V> vertices = new ArrayList<>(this.positions.size());
+        for (V vertex : this.order) {
+            if (vertex != null) {
+                vertices.add(vertex);
+            }
+        }
+        return Collections.unmodifiableList(vertices);
+    }
+
+    public GraphRepresentation<V> getGraph() {
+        return this.graph;
+    }
+
+    private void reorder(V vertexFrom, V vertexTo) {
+        if (vertexFrom.equals(vertexTo)) {
+            throw new IllegalArgumentException("Edge would create a cycle!");
+        }
+        int upperBound = this.positions.get(vertexFrom);
+        int lowerBound = this.positions.get(vertexTo);
+        if (lowerBound > upperBound) {
+            return;
+        }
+
+        // vertices reachable from vertexTo that sit before vertexFrom have to move behind it
+        Set<V> reached = new HashSet<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        reached.add(vertexTo);
+        stack.push(this.graph.getVertexIndex(vertexTo));
+        while (!stack.isEmpty()) {
+            int current = stack.pop();
+            int neighbourCount = this.graph.neighbourCount(current);
+            for (int i = 0; i < neighbourCount; i++) {
+                int neighbourIndex = this.graph.getNeighbourIndex(current, i);
+                V neighbour = this.graph.getVertexAt(neighbourIndex);
+                int position = this.positions.get(neighbour);
+                if (position == upperBound) {
+                    throw new IllegalArgumentException("Edge would create a cycle!");
+                }
+                if (position < upperBound && reached.add(neighbour)) {
+                    stack.push(neighbourIndex);
+                }
+            }
+        }
+
+        // shift the rest of lowerBound .. upperBound left and put the reached vertices after vertexFrom, both keep their relative order
+        List<V> moved = new ArrayList<>(reached.size());
+        int write = lowerBound;
+        for (int position = lowerBound; position <= upperBound; position++) {
+            V vertex = this.order.get(position);
+            if (vertex != null && reached.contains(vertex)) {
+                moved.add(vertex);
+            } else {
+                this.place(vertex, write++);
+            }
+        }
+        for (V vertex : moved) {
+            this.place(vertex, write++);
+        }
+    }
+
+    private void append(V vertex) {
+        this.positions.put(vertex, this.order.size());
+        this.order.add(vertex);
+    }
+
+    private void drop(V vertex) {
+        Integer position = this.positions.remove(vertex);
+        if (position != null) {
+            this.order.set(position, null);
+            this.holeCount++;
+            if (this.holeCount > 16 && this.holeCount * 2 > this.order.size()) {
+                this.compact();
+            }
+        }
+    }
+
+    // Kahn's algorithm over the graph with the batch applied, without applying it. Indexes from vertexIndexBound on
+    // stand for the added vertices. Returns null when the result would be cyclic
+    private List<V> orderAfter(GraphBatch<V> batch) {
+        int bound = this.graph.vertexIndexBound();
+        List<V> addedVertices = batch.getVerticesToAdd();
+        int virtualBound = bound + addedVertices.size();
+        HashMap<V, Integer> addedIndexes = new HashMap<>();
+        for (int i = 0; i < addedVertices.size(); i++) {
+            addedIndexes.put(addedVertices.get(i), bound + i);
+        }
+        boolean[] removed = new boolean[virtualBound];
+        for (V vertex : batch.getVerticesToRemove()) {
+            if (this.graph.hasVertex(vertex)) {
+                removed[this.graph.getVertexIndex(vertex)] = true;
+            }
+        }
+        Set<Long> removedEdges = new HashSet<>();
+        for (Edge<V> edge : batch.getEdgesToRemove()) {
+            if (this.graph.hasVertex(edge.vertexFrom) && this.graph.hasVertex(edge.vertexTo)) {
+                removedEdges.add(edgeKey(this.graph.getVertexIndex(edge.vertexFrom), this.graph.getVertexIndex(edge.vertexTo)));
+            }
+        }
+
+        // added edges as rows by source
+        List<Edge<V>> addedEdges = batch.getEdgesToAdd();
+        int[] addedSources = new int[addedEdges.size()];
+        int[] addedOffsets = new int[virtualBound + 1];
+        for (int i = 0; i < addedEdges.size(); i++) {
+            Integer source = addedIndexes.get(addedEdges.get(i).vertexFrom);
+            addedSources[i] = source != null ? source : this.graph.getVertexIndex(addedEdges.get(i).vertexFrom);
+            addedOffsets[addedSources[i] + 1]++;
+        }
+        for (int i = 0; i < virtualBound; i++) {
+            addedOffsets[i + 1] += addedOffsets[i];
+        }
+        int[] addedTargets = new int[addedEdges.size()];
+        int[] fill = Arrays.copyOf(addedOffsets, virtualBound);
+        for (int i = 0; i < addedEdges.size(); i++) {
+            Integer target = addedIndexes.get(addedEdges.get(i).vertexTo);
+            addedTargets[fill[addedSources[i]]++] = target != null ? target : this.graph.getVertexIndex(addedEdges.get(i).vertexTo);
+        }
+
+        int[] inDegrees = new int[virtualBound];
+        int liveCount = 0;
+        for (int i = 0; i < virtualBound; i++) {
+            if (!this.isLiveAfter(i, bound, removed)) {
+                continue;
+            }
+            liveCount++;
+            int neighbourCount = i < bound ? this.graph.neighbourCount(i) : 0;
+            for (int j = 0; j < neighbourCount; j++) {
+                int neighbour = this.graph.getNeighbourIndex(i, j);
+                if (!removed[neighbour] && !removedEdges.contains(edgeKey(i, neighbour))) {
+                    inDegrees[neighbour]++;
+                }
+            }
+            for (int j = addedOffsets[i]; j < addedOffsets[i + 1]; j++) {
+                inDegrees[addedTargets[j]]++;
+            }
+        }
+        int[] queue = new int[liveCount];
+        int tail = 0;
+        for (int i = 0; i < virtualBound; i++) {
+            if (inDegrees[i] == 0 && this.isLiveAfter(i, bound, removed)) {
+                queue[tail++] = i;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            int neighbourCount = current < bound ? this.graph.neighbourCount(current) : 0;
+            for (int j = 0; j < neighbourCount; j++) {
+                int neighbour = this.graph.getNeighbourIndex(current, j);
+                if (!removed[neighbour] && !removedEdges.contains(edgeKey(current, neighbour)) && --inDegrees[neighbour] == 0) {
+                    queue[tail++] = neighbour;
+                }
+            }
+            for (int j = addedOffsets[current]; j < addedOffsets[current + 1]; j++) {
+                if (--inDegrees[addedTargets[j]] == 0) {
+                    queue[tail++] = addedTargets[j];
+                }
+            }
+        }
+        if (tail < liveCount) {
+            return null;
+        }
+        List<V> newOrder = new ArrayList<>(liveCount);
+        for (int i = 0; i < tail; i++) {
+            newOrder.add(queue[i] < bound ? this.graph.getVertexAt(queue[i]) : addedVertices.get(queue[i] - bound));
+        }
+        return newOrder;
+    }
+
+    private boolean isLiveAfter(int vertexIndex, int bound, boolean[] removed) {
+        return vertexIndex >= bound || (!removed[vertexIndex] && this.graph.getVertexAt(vertexIndex) != null);
+    }
+
+    private static long edgeKey(int indexFrom, int indexTo) {
+        return ((long) indexFrom << 32) | indexTo;
+    }
+
+    private void place(V vertex, int position) {
+        this.order.set(position, vertex);
+        if (vertex != null) {
+            this.positions.put(vertex, position);
+        }
+    }
+
+    private void compact() {
+        int write = 0;
+        for (int position = 0; position < this.order.size(); position++) {
+            V vertex = this.order.get(position);
+            if (vertex != null) {
+                this.place(vertex, write++);
+            }
+        }
+        this.order.subList(write, this.order.size()).clear();
+        this.holeCount = 0;
+    }
+
+    private void ensureCurrent() {
+        if (this.version != this.graph.getModificationCount()) {
+            this.rebuild();
+        }
+    }
+
+    private void ensureAcyclic() {
+        if (this.isCyclic()) {
+            throw new IllegalStateException("Graph is cyclic!");
+        }
+    }
+
+    // Kahn's algorithm, vertices left over belong to or hang behind a cycle and are appended in index order
+    private void rebuild() {
+        int bound = this.graph.vertexIndexBound();
+        int[] inDegrees = new int[bound];
+        for (int i = 0; i < bound; i++) {
+            if (this.graph.getVertexAt(i) == null) {
+                continue;
+            }
+            int neighbourCount = this.graph.neighbourCount(i);
+            for (int j = 0; j < neighbourCount; j++) {
+                inDegrees[this.graph.getNeighbourIndex(i, j)]++;
+            }
+        }
+        int[] queue = new int[bound];
+        boolean[] queued = new boolean[bound];
+        int tail = 0;
+        for (int i = 0; i < bound; i++) {
+            if (inDegrees[i] == 0 && this.graph.getVertexAt(i) != null) {
+                queue[tail++] = i;
+                queued[i] = true;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            int neighbourCount = this.graph.neighbourCount(current);
+            for (int j = 0; j < neighbourCount; j++) {
+                int neighbour = this.graph.getNeighbourIndex(current, j);
+                if (--inDegrees[neighbour] == 0) {
+                    queue[tail++] = neighbour;
+                    queued[neighbour] = true;
+                }
+            }
+        }
+        this.isCyclic = tail < this.graph.vertexCount();
+        for (int i = 0; i < bound && this.isCyclic; i++) {
+            if (!queued[i] && this.graph.getVertexAt(i) != null) {
+                queue[tail++] = i;
+            }
+        }
+
+        this.order.clear();
+        this.positions.clear();
+        for (int i = 0; i < tail; i++) {
+            V vertex = this.graph.getVertexAt(queue[i]);
+            this.order.add(vertex);
+            this.positions.put(vertex, i);
+        }
+        this.holeCount = 0;
+        this.version = this.graph.getModificationCount();
+    }
+}
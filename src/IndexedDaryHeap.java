@@ -0,0 +1,149 @@
+import java.util.Arrays;
+
+// min heap of int ids in [0, capacity) keyed by double, supports decrease-key through a position table
+public class IndexedDaryHeap {
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private int[] heap;
+    // id -> position in heap, -1 when the id is not in the heap
+    private int[] positions;
+    private double[] keys;
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2!");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(this.positions, -1);
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity <= this.positions.length) {
+            return;
+        }
+        int oldCapacity = this.positions.length;
+        this.heap = Arrays.copyOf(this.heap, capacity);
+        this.positions = Arrays.copyOf(this.positions, capacity);
+        this.keys = Arrays.copyOf(this.keys, capacity);
+        Arrays.fill(this.positions, oldCapacity, capacity, -1);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public boolean contains(int id) {
+        return this.positions[id] >= 0;
+    }
+
+    public double getKey(int id) {
+        return this.keys[id];
+    }
+
+    public int peekMin() {
+        if (this.size == 0) {
+            throw new IllegalStateException("Heap is empty!");
+        }
+        return this.heap[0];
+    }
+
+    public void insert(int id, double key) {
+        if (this.contains(id)) {
+            throw new IllegalArgumentException("Id is already in the heap!");
+        }
+        this.keys[id] = key;
+        this.heap[this.size] = id;
+        this.positions[id] = this.size;
+        this.size++;
+        this.siftUp(this.size - 1);
+    }
+
+    public void decreaseKey(int id, double key) {
+        if (key > this.keys[id]) {
+            throw new IllegalArgumentException("New key is larger than the current one!");
+        }
+        this.keys[id] = key;
+        this.siftUp(this.positions[id]);
+    }
+
+    public int pollMin() {
+        int min = this.peekMin();
+        this.size--;
+        this.positions[min] = -1;
+        if (this.size > 0) {
+            int last = this.heap[this.size];
+            this.heap[0] = last;
+            this.positions[last] = 0;
+            this.siftDown(0);
+        }
+        return min;
+    }
+
+    // O(size), keeps the allocated buffers
+    public void clear() {
+        for (int i = 0; i < this.size; i++) {
+            this.positions[this.heap[i]] = -1;
+        }
+        this.size = 0;
+    }
+
+    private void siftUp(int position) {
+        int id = this.heap[position];
+        double key = this.keys[id];
+        while (position > 0) {
+            int parentPosition = (position - 1) / this.arity;
+            int parent = this.heap[parentPosition];
+            if (this.keys[parent] <= key) {
+                break;
+            }
+            this.heap[position] = parent;
+            this.positions[parent] = position;
+            position = parentPosition;
+        }
+        this.heap[position] = id;
+        this.positions[id] = position;
+    }
+
+    private void siftDown(int position) {
+        int id = this.heap[position];
+        double key = this.keys[id];
+        while (true) {
+            int firstChild = position * this.arity + 1;
+            if (firstChild >= this.size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + this.arity, this.size);
+            int minChildPosition = firstChild;
+            double minChildKey = this.keys[this.heap[firstChild]];
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                double childKey = this.keys[this.heap[child]];
+                if (childKey < minChildKey) {
+                    minChildKey = childKey;
+                    minChildPosition = child;
+                }
+            }
+            if (minChildKey >= key) {
+                break;
+            }
+            int minChild = this.heap[minChildPosition];
+            this.heap[position] = minChild;
+            this.positions[minChild] = position;
+            position = minChildPosition;
+        }
+        this.heap[position] = id;
+        this.positions[id] = position;
+    }
+}
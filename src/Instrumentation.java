@@ -0,0 +1,6 @@
+// receives the metrics of every query of the algorithms it is set on, see Graph.setInstrumentation.
+// Called on the querying thread, so an instance shared between threads must be thread safe like MetricsRecorder.
+// Algorithms keep a null instrumentation by default and then neither time nor count anything.
+public interface Instrumentation {
+    void queryFinished(QueryMetrics metrics);
+}
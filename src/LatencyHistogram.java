@@ -0,0 +1,96 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// thread safe histogram of non-negative durations in nanoseconds. Buckets are log-linear: every power of two is
+// split into 2^SUB_BUCKET_BITS equal buckets, so a recorded value is off by at most 1 / 2^SUB_BUCKET_BITS
+// (12.5%) while 488 longs cover the whole long range.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Duration must not be negative!");
+        }
+        this.counts.incrementAndGet(bucketOf(nanos));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(nanos);
+        this.max.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return this.count.get();
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    public double getMean() {
+        long count = this.count.get();
+        return count == 0 ? 0.0 : (double) this.sum.get() / count;
+    }
+
+    // upper bound of the bucket holding the value at the quantile, e.g. 0.99, 0 while empty
+    public long getValueAtQuantile(double quantile) {
+        if (!(quantile >= 0.0 && quantile <= 1.0)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1!");
+        }
+        long count = this.count.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += this.counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), this.max.get());
+            }
+        }
+        // records racing with this walk
+        return this.max.get();
+    }
+
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            this.counts.set(bucket, 0);
+        }
+        this.count.set(0);
+        this.sum.set(0);
+        this.max.set(0);
+    }
+
+    // values below SUB_BUCKETS get a bucket each, above that the exponent picks a group and the next
+    // SUB_BUCKET_BITS bits below the leading one the bucket in it
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return this.getCount() + " queries, mean " + Math.round(this.getMean() / 1000) + " us, p50 "
+                + this.getValueAtQuantile(0.5) / 1000 + " us, p99 " + this.getValueAtQuantile(0.99) / 1000
+                + " us, max " + this.getMax() / 1000 + " us";
+    }
+}
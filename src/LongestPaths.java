@@ -0,0 +1,198 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+// longest paths starting at every vertex of a DAG, counted both in edges and in weight, in one O(V + E) pass
+// over a topological order. Computed once on construction, later modifications of the representation are not seen.
+public class LongestPaths<V> {
+    private final GraphRepresentation<V> graph;
+    // indexed by vertex index, radii are -1 for empty slots
+    private final int[] radii;
+    private final double[] weightedRadii;
+    // next vertex on the heaviest path, -1 at its end
+    private final int[] successors;
+
+    public LongestPaths(GraphRepresentation<V> graphRepresentation) {
+        graphRepresentation = graphRepresentation.snapshot();
+        this.graph = graphRepresentation;
+        int bound = graphRepresentation.vertexIndexBound();
+        this.radii = new int[bound];
+        this.weightedRadii = new double[bound];
+        this.successors = new int[bound];
+
+        // Kahn's algorithm, the order array doubles as the queue
+        int[] inDegrees = new int[bound];
+        int vertexCount = 0;
+        for (int i = 0; i < bound; i++) {
+            if (graphRepresentation.getVertexAt(i) == null) {
+                continue;
+            }
+            vertexCount++;
+            int neighbourCount = graphRepresentation.neighbourCount(i);
+            for (int j = 0; j < neighbourCount; j++) {
+                inDegrees[graphRepresentation.getNeighbourIndex(i, j)]++;
+            }
+        }
+        int[] order = new int[vertexCount];
+        int tail = 0;
+        for (int i = 0; i < bound; i++) {
+            if (inDegrees[i] == 0 && graphRepresentation.getVertexAt(i) != null) {
+                order[tail++] = i;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int vertex = order[head];
+            int neighbourCount = graphRepresentation.neighbourCount(vertex);
+            for (int j = 0; j < neighbourCount; j++) {
+                int neighbour = graphRepresentation.getNeighbourIndex(vertex, j);
+                if (--inDegrees[neighbour] == 0) {
+                    order[tail++] = neighbour;
+                }
+            }
+        }
+        if (tail < vertexCount) {
+            throw new IllegalStateException("Graph is cyclic! There are infinitely long paths");
+        }
+
+        Arrays.fill(this.radii, -1);
+        for (int i = vertexCount - 1; i >= 0; i--) {
+            this.computeVertex(order[i]);
+        }
+    }
+
+    // peels the DAG from its sinks one level at a time, every vertex of a level is computed concurrently.
+    // Representations other than CompressedSparseRowRepresentation are copied first.
+    public LongestPaths(GraphRepresentation<V> graphRepresentation, ForkJoinPool pool) {
+        CompressedSparseRowRepresentation<V> snapshot = graphRepresentation instanceof CompressedSparseRowRepresentation
+                ? (CompressedSparseRowRepresentation<V>) graphRepresentation
+                : new CompressedSparseRowRepresentation<>(graphRepresentation);
+        this.graph = snapshot;
+        int bound = snapshot.vertexIndexBound();
+        this.radii = new int[bound];
+        this.weightedRadii = new double[bound];
+        this.successors = new int[bound];
+        Arrays.fill(this.radii, -1);
+
+        // a vertex joins the next level once all of its neighbours are computed
+        AtomicIntegerArray remaining = new AtomicIntegerArray(bound);
+        int[] levelVertices = new int[snapshot.vertexCount()];
+        int levelEnd = 0;
+        for (int i = 0; i < bound; i++) {
+            if (snapshot.getVertexAt(i) == null) {
+                continue;
+            }
+            int neighbourCount = snapshot.neighbourCount(i);
+            remaining.set(i, neighbourCount);
+            if (neighbourCount == 0) {
+                levelVertices[levelEnd++] = i;
+            }
+        }
+
+        int levelStart = 0;
+        while (levelStart < levelEnd) {
+            int start = levelStart;
+            int end = levelEnd;
+            AtomicInteger nextEnd = new AtomicInteger(end);
+            pool.submit(() -> IntStream.range(start, end).parallel().forEach(i -> {
+                int vertex = levelVertices[i];
+                this.computeVertex(vertex);
+                int parentCount = snapshot.parentCount(vertex);
+                for (int j = 0; j < parentCount; j++) {
+                    int parent = snapshot.getParentIndex(vertex, j);
+                    if (remaining.decrementAndGet(parent) == 0) {
+                        levelVertices[nextEnd.getAndIncrement()] = parent;
+                    }
+                }
+            })).join();
+            levelStart = end;
+            levelEnd = nextEnd.get();
+        }
+        if (levelEnd < levelVertices.length) {
+            throw new IllegalStateException("Graph is cyclic! There are infinitely long paths");
+        }
+    }
+
+    // number of edges on the longest path starting at vertex
+    public int getRadius(V vertex) {
+        return this.radii[this.graph.getVertexIndex(vertex)];
+    }
+
+    // total weight of the heaviest path starting at vertex
+    public double getWeightedRadius(V vertex) {
+        return this.weightedRadii[this.graph.getVertexIndex(vertex)];
+    }
+
+    public int getDiameter() {
+        int diameter = 0;
+        for (int radius : this.radii) {
+            diameter = Math.max(diameter, radius);
+        }
+        return diameter;
+    }
+
+    public double getWeightedDiameter() {
+        double diameter = 0.0;
+        for (int i = 0; i < this.radii.length; i++) {
+            if (this.radii[i] >= 0) {
+                diameter = Math.max(diameter, this.weightedRadii[i]);
+            }
+        }
+        return diameter;
+    }
+
+    public Path<V> getLongestPathFrom(V vertex) {
+        return this.buildPath(this.graph.getVertexIndex(vertex));
+    }
+
+    // heaviest path of the whole graph, null for an empty graph
+    public Path<V> getLongestPath() {
+        int start = -1;
+        for (int i = 0; i < this.radii.length; i++) {
+            if (this.radii[i] >= 0 && (start < 0 || this.weightedRadii[i] > this.weightedRadii[start])) {
+                start = i;
+            }
+        }
+        return start < 0 ? null : this.buildPath(start);
+    }
+
+    public GraphRepresentation<V> getGraph() {
+        return this.graph;
+    }
+
+    // every neighbour of vertex must already be computed
+    private void computeVertex(int vertex) {
+        int radius = 0;
+        double weightedRadius = 0.0;
+        int successor = -1;
+        int neighbourCount = this.graph.neighbourCount(vertex);
+        for (int j = 0; j < neighbourCount; j++) {
+            int neighbour = this.graph.getNeighbourIndex(vertex, j);
+            radius = Math.max(radius, this.radii[neighbour] + 1);
+            double weight = this.weightedRadii[neighbour] + this.graph.getNeighbourWeight(vertex, j);
+            if (successor < 0 || weight > weightedRadius) {
+                weightedRadius = weight;
+                successor = neighbour;
+            }
+        }
+        this.weightedRadii[vertex] = weightedRadius;
+        this.successors[vertex] = successor;
+        this.radii[vertex] = radius;
+    }
+
+    private Path<V> buildPath(int startIndex) {
+        if (this.successors[startIndex] < 0) {
+            return new Path<>(this.graph.getVertexAt(startIndex));
+        }
+        List<Edge<V>> edges = new ArrayList<>();
+        for (int current = startIndex; this.successors[current] >= 0; current = this.successors[current]) {
+            V vertexFrom = this.graph.getVertexAt(current);
+            V vertexTo = this.graph.getVertexAt(this.successors[current]);
+            edges.add(new Edge<>(vertexFrom, vertexTo, this.graph.getEdgeWeight(vertexFrom, vertexTo)));
+        }
+        return new Path<>(edges, this.weightedRadii[startIndex]);
+    }
+}
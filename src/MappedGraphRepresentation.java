@@ -0,0 +1,297 @@
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+// read-only graph served straight from a file written by BinaryGraphFormat, opened with BinaryGraphFormat.open.
+// Edges are read from the mapped pages on every query, so opening costs nothing per edge and processes mapping
+// the same file share the page cache. Vertices are decoded on first use, the vertex -> index map is built on the
+// first lookup by vertex.
+public class MappedGraphRepresentation<V> implements GraphRepresentation<V> {
+    private final MappedByteBuffer[] chunks;
+    private final VertexCodec<V> codec;
+    private final int vertexCount;
+    private final long edgeCount;
+    private final long offsetsPosition;
+    private final long targetsPosition;
+    private final long weightsPosition;
+    private final long parentOffsetsPosition;
+    private final long sourcesPosition;
+    private final long parentWeightsPosition;
+    private final long vertexIndexPosition;
+    private final long vertexDataPosition;
+    private final boolean hasIncomingEdges;
+    // decoded on first use
+    private final Object[] vertices;
+    private HashMap<V, Integer> vertexIndexes;
+
+    MappedGraphRepresentation(MappedByteBuffer[] chunks, VertexCodec<V> codec) {
+        this.chunks = chunks;
+        this.codec = codec;
+        this.hasIncomingEdges = (this.getInt(BinaryGraphFormat.FLAGS) & BinaryGraphFormat.INCOMING_EDGES) != 0;
+        this.vertexCount = this.getInt(BinaryGraphFormat.VERTEX_COUNT);
+        this.edgeCount = this.getLong(BinaryGraphFormat.EDGE_COUNT);
+        this.offsetsPosition = this.getLong(BinaryGraphFormat.OFFSETS);
+        this.targetsPosition = this.getLong(BinaryGraphFormat.TARGETS);
+        this.weightsPosition = this.getLong(BinaryGraphFormat.WEIGHTS);
+        this.parentOffsetsPosition = this.getLong(BinaryGraphFormat.PARENT_OFFSETS);
+        this.sourcesPosition = this.getLong(BinaryGraphFormat.SOURCES);
+        this.parentWeightsPosition = this.getLong(BinaryGraphFormat.PARENT_WEIGHTS);
+        this.vertexIndexPosition = this.getLong(BinaryGraphFormat.VERTEX_INDEX);
+        this.vertexDataPosition = this.getLong(BinaryGraphFormat.VERTEX_DATA);
+        this.vertices = new Object[this.vertexCount];
+    }
+
+    @Override
+    public void addVertex(V vertex) {
+        throw new UnsupportedOperationException("Representation is immutable!");
+    }
+
+    @Override
+    public void removeVertex(V vertex) {
+        throw new UnsupportedOperationException("Representation is immutable!");
+    }
+
+    @Override
+    public void addEdge(V vertexFrom, V vertexTo, double weight) {
+        throw new UnsupportedOperationException("Representation is immutable!");
+    }
+
+    @Override
+    public void removeEdge(V vertexFrom, V vertexTo) {
+        throw new UnsupportedOperationException("Representation is immutable!");
+    }
+
+    @Override
+    public List<V> getVertexList() {
+        List<V> vertexList = new ArrayList<>(this.vertexCount);
+        for (int i = 0; i < this.vertexCount; i++) {
+            vertexList.add(this.getVertexAt(i));
+        }
+        return vertexList;
+    }
+
+    @Override
+    public List<V> getVertexNeighbours(V vertex) {
+        int vertexIndex = this.getVertexIndex(vertex);
+        int neighbourCount = this.neighbourCount(vertexIndex);
+        List<V> neighbours = new ArrayList<>(neighbourCount);
+        for (int i = 0; i < neighbourCount; i++) {
+            neighbours.add(this.getVertexAt(this.getNeighbourIndex(vertexIndex, i)));
+        }
+        return neighbours;
+    }
+
+    @Override
+    public List<Edge<V>> getEdgeList() {
+        List<Edge<V>> edges = new ArrayList<>((int) Math.min(Integer.MAX_VALUE - 8, this.edgeCount));
+        for (int i = 0; i < this.vertexCount; i++) {
+            V vertexFrom = this.getVertexAt(i);
+            int neighbourCount = this.neighbourCount(i);
+            for (int j = 0; j < neighbourCount; j++) {
+                edges.add(new Edge<>(vertexFrom, this.getVertexAt(this.getNeighbourIndex(i, j)), this.getNeighbourWeight(i, j)));
+            }
+        }
+        return edges;
+    }
+
+    @Override
+    public boolean hasVertex(V vertex) {
+        return this.getVertexIndexes().get(vertex) != null;
+    }
+
+    @Override
+    public boolean hasEdge(V vertexFrom, V vertexTo) {
+        return this.getEdgePosition(vertexFrom, vertexTo) >= 0;
+    }
+
+    @Override
+    public double getEdgeWeight(V vertexFrom, V vertexTo) {
+        long position = this.getEdgePosition(vertexFrom, vertexTo);
+        if (position < 0) {
+            throw new IllegalArgumentException("Edge does not exist!");
+        }
+        return this.getDouble(this.weightsPosition + 8 * position);
+    }
+
+    @Override
+    public void setEdgeWeight(V vertexFrom, V vertexTo, double weight) {
+        throw new UnsupportedOperationException("Representation is immutable!");
+    }
+
+    @Override
+    public int vertexCount() {
+        return this.vertexCount;
+    }
+
+    public long edgeCount() {
+        return this.edgeCount;
+    }
+
+    @Override
+    public long getModificationCount() {
+        return 0;
+    }
+
+    @Override
+    public int getVertexIndex(V vertex) {
+        Integer vertexIndex = this.getVertexIndexes().get(vertex);
+        if (vertexIndex == null) {
+            throw new IllegalArgumentException("Vertex does not exist!");
+        }
+        return vertexIndex;
+    }
+
+    @Override
+    public V getVertexAt(int vertexIndex) {
+        return this.vertexAt(vertexIndex);
+    }
+
+    // decoded vertices are always of type V
+    @SuppressWarnings("unchecked")
+    private V vertexAt(int vertexIndex) {
+        Object vertex = this.vertices[vertexIndex];
+        if (vertex == null) {
+            vertex = this.decodeVertex(vertexIndex);
+            this.vertices[vertexIndex] = vertex;
+        }
+        return (V) vertex;
+    }
+
+    @Override
+    public int vertexIndexBound() {
+        return this.vertexCount;
+    }
+
+    @Override
+    public int neighbourCount(int vertexIndex) {
+        return (int) (this.rowStart(this.offsetsPosition, vertexIndex + 1) - this.rowStart(this.offsetsPosition, vertexIndex));
+    }
+
+    @Override
+    public int getNeighbourIndex(int vertexIndex, int position) {
+        return this.getInt(this.targetsPosition + 4 * (this.rowStart(this.offsetsPosition, vertexIndex) + position));
+    }
+
+    @Override
+    public double getNeighbourWeight(int vertexIndex, int position) {
+        return this.getDouble(this.weightsPosition + 8 * (this.rowStart(this.offsetsPosition, vertexIndex) + position));
+    }
+
+    @Override
+    public boolean hasIncomingEdges() {
+        return this.hasIncomingEdges;
+    }
+
+    @Override
+    public int parentCount(int vertexIndex) {
+        this.checkIncomingEdges();
+        return (int) (this.rowStart(this.parentOffsetsPosition, vertexIndex + 1) - this.rowStart(this.parentOffsetsPosition, vertexIndex));
+    }
+
+    @Override
+    public int getParentIndex(int vertexIndex, int position) {
+        this.checkIncomingEdges();
+        return this.getInt(this.sourcesPosition + 4 * (this.rowStart(this.parentOffsetsPosition, vertexIndex) + position));
+    }
+
+    @Override
+    public double getParentWeight(int vertexIndex, int position) {
+        this.checkIncomingEdges();
+        return this.getDouble(this.parentWeightsPosition + 8 * (this.rowStart(this.parentOffsetsPosition, vertexIndex) + position));
+    }
+
+    @Override
+    public void print() {
+        System.out.println("Printing graph...");
+        for (int i = 0; i < this.vertexCount; i++) {
+            System.out.print(this.getVertexAt(i) + " -> ");
+            for (int j = 0; j < this.neighbourCount(i); j++) {
+                System.out.print("(vertex: " + this.getVertexAt(this.getNeighbourIndex(i, j)) + ", weight: " + this.getNeighbourWeight(i, j) + "); ");
+            }
+            System.out.println();
+        }
+        System.out.println("End of graph");
+    }
+
+    private synchronized HashMap<V, Integer> getVertexIndexes() {
+        if (this.vertexIndexes == null) {
+            HashMap<V, Integer> indexes = new HashMap<>(this.vertexCount * 2);
+            for (int i = 0; i < this.vertexCount; i++) {
+                indexes.put(this.getVertexAt(i), i);
+            }
+            this.vertexIndexes = indexes;
+        }
+        return this.vertexIndexes;
+    }
+
+    // rows are sorted, so edges are found by binary search
+    private long getEdgePosition(V vertexFrom, V vertexTo) {
+        if (!this.hasVertex(vertexFrom) || !this.hasVertex(vertexTo)) {
+            throw new IllegalArgumentException("Not both vertices exist!");
+        }
+        int indexFrom = this.getVertexIndexes().get(vertexFrom);
+        int indexTo = this.getVertexIndexes().get(vertexTo);
+        long low = this.rowStart(this.offsetsPosition, indexFrom);
+        long high = this.rowStart(this.offsetsPosition, indexFrom + 1) - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            int target = this.getInt(this.targetsPosition + 4 * middle);
+            if (target < indexTo) {
+                low = middle + 1;
+            } else if (target > indexTo) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private V decodeVertex(int vertexIndex) {
+        long start = this.vertexDataPosition + this.rowStart(this.vertexIndexPosition, vertexIndex);
+        int length = (int) (this.rowStart(this.vertexIndexPosition, vertexIndex + 1) - this.rowStart(this.vertexIndexPosition, vertexIndex));
+        int chunk = (int) (start / BinaryGraphFormat.CHUNK_SIZE);
+        int offset = (int) (start % BinaryGraphFormat.CHUNK_SIZE);
+        ByteBuffer bytes;
+        if (offset + length <= this.chunks[chunk].capacity()) {
+            bytes = this.chunks[chunk].duplicate();
+            bytes.position(offset);
+            bytes.limit(offset + length);
+            bytes = bytes.slice();
+        } else {
+            // the encoded vertex crosses into the next chunk
+            byte[] copy = new byte[length];
+            for (int i = 0; i < length; i++) {
+                long position = start + i;
+                copy[i] = this.chunks[(int) (position / BinaryGraphFormat.CHUNK_SIZE)].get((int) (position % BinaryGraphFormat.CHUNK_SIZE));
+            }
+            bytes = ByteBuffer.wrap(copy);
+        }
+        return this.codec.decode(bytes);
+    }
+
+    private void checkIncomingEdges() {
+        if (!this.hasIncomingEdges) {
+            throw new UnsupportedOperationException("Incoming edges are not tracked!");
+        }
+    }
+
+    private long rowStart(long sectionPosition, int vertexIndex) {
+        return this.getLong(sectionPosition + 8L * vertexIndex);
+    }
+
+    // sections are 8 byte aligned and the chunk size is a multiple of 8, so no value spans two chunks
+    private int getInt(long position) {
+        return this.chunks[(int) (position / BinaryGraphFormat.CHUNK_SIZE)].getInt((int) (position % BinaryGraphFormat.CHUNK_SIZE));
+    }
+
+    private long getLong(long position) {
+        return this.chunks[(int) (position / BinaryGraphFormat.CHUNK_SIZE)].getLong((int) (position % BinaryGraphFormat.CHUNK_SIZE));
+    }
+
+    private double getDouble(long position) {
+        return this.chunks[(int) (position / BinaryGraphFormat.CHUNK_SIZE)].getDouble((int) (position % BinaryGraphFormat.CHUNK_SIZE));
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// thread safe Instrumentation aggregating the queries of every algorithm: counter totals and latency histograms,
+// one for the whole query and one per phase. The metrics of each query can also be passed on, e.g. to log slow ones.
+public class MetricsRecorder implements Instrumentation {
+    private final Map<String, AlgorithmMetrics> algorithms = new ConcurrentHashMap<>();
+    private final Instrumentation next;
+
+    public static class AlgorithmMetrics {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram[] phaseLatencies = new LatencyHistogram[QueryMetrics.Phase.values().length];
+        private final LongAdder verticesSettled = new LongAdder();
+        private final LongAdder edgesRelaxed = new LongAdder();
+        private final LongAdder heapPushes = new LongAdder();
+        private final LongAdder heapPops = new LongAdder();
+        private final LongAdder stalePops = new LongAdder();
+        private final LongAdder frontiers = new LongAdder();
+
+        AlgorithmMetrics() {
+            for (int i = 0; i < this.phaseLatencies.length; i++) {
+                this.phaseLatencies[i] = new LatencyHistogram();
+            }
+        }
+
+        void record(QueryMetrics metrics) {
+            this.latency.record(metrics.getTotalNanos());
+            for (QueryMetrics.Phase phase : QueryMetrics.Phase.values()) {
+                this.phaseLatencies[phase.ordinal()].record(metrics.getPhaseNanos(phase));
+            }
+            this.verticesSettled.add(metrics.verticesSettled);
+            this.edgesRelaxed.add(metrics.edgesRelaxed);
+            this.heapPushes.add(metrics.heapPushes);
+            this.heapPops.add(metrics.heapPops);
+            this.stalePops.add(metrics.stalePops);
+            this.frontiers.add(metrics.getFrontierSizes().length);
+        }
+
+        public long getQueryCount() {
+            return this.latency.getCount();
+        }
+
+        public LatencyHistogram getLatency() {
+            return this.latency;
+        }
+
+        public LatencyHistogram getPhaseLatency(QueryMetrics.Phase phase) {
+            return this.phaseLatencies[phase.ordinal()];
+        }
+
+        public long getVerticesSettled() {
+            return this.verticesSettled.sum();
+        }
+
+        public long getEdgesRelaxed() {
+            return this.edgesRelaxed.sum();
+        }
+
+        public long getHeapPushes() {
+            return this.heapPushes.sum();
+        }
+
+        public long getHeapPops() {
+            return this.heapPops.sum();
+        }
+
+        public long getStalePops() {
+            return this.stalePops.sum();
+        }
+
+        public long getFrontierCount() {
+            return this.frontiers.sum();
+        }
+
+        @Override
+        public String toString() {
+            long queries = Math.max(1, this.getQueryCount());
+            StringBuilder builder = new StringBuilder(this.latency.toString())
+                    .append("\n  per query: ").append(this.getVerticesSettled() / queries).append(" settled, ")
+                    .append(this.getEdgesRelaxed() / queries).append(" edges relaxed, ")
+                    .append(this.getHeapPushes() / queries).append(" pushes, ")
+                    .append(this.getHeapPops() / queries).append(" pops, ")
+                    .append(this.getStalePops() / queries).append(" stale pops, ")
+                    .append(this.getFrontierCount() / queries).append(" frontiers");
+            for (QueryMetrics.Phase phase : QueryMetrics.Phase.values()) {
+                builder.append("\n  ").append(phase.name().toLowerCase()).append(": ").append(this.getPhaseLatency(phase));
+            }
+            return builder.toString();
+        }
+    }
+
+    public MetricsRecorder() {
+        this(null);
+    }
+
+    // next receives every query after it is recorded, may be null
+    public MetricsRecorder(Instrumentation next) {
+        this.next = next;
+    }
+
+    @Override
+    public void queryFinished(QueryMetrics metrics) {
+        this.algorithms.computeIfAbsent(metrics.getAlgorithm(), algorithm -> new AlgorithmMetrics()).record(metrics);
+        if (this.next != null) {
+            this.next.queryFinished(metrics);
+        }
+    }
+
+    // null when no query of the algorithm was recorded
+    public AlgorithmMetrics getMetrics(String algorithm) {
+        return this.algorithms.get(algorithm);
+    }
+
+    public Map<String, AlgorithmMetrics> getAllMetrics() {
+        return new TreeMap<>(this.algorithms);
+    }
+
+    public void reset() {
+        this.algorithms.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, AlgorithmMetrics> entry : this.getAllMetrics().entrySet()) {
+            builder.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,200 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+// level synchronous BFS on an immutable snapshot. Small frontiers are expanded top-down over outgoing edges,
+// large ones bottom-up: every unvisited vertex looks for a parent in the frontier bitset over its incoming edges.
+public class ParallelBreadthFirstSearch<V> {
+    // switch to bottom-up once the frontier's edges exceed the unexplored edges / ALPHA,
+    // back to top-down once the frontier has fewer than vertexCount / BETA vertices
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int WORDS_PER_TASK = 64;
+
+    private final CompressedSparseRowRepresentation<V> graph;
+    private final ForkJoinPool pool;
+    private Instrumentation instrumentation;
+
+    public ParallelBreadthFirstSearch(GraphRepresentation<V> graphRepresentation) {
+        this(graphRepresentation, ForkJoinPool.commonPool());
+    }
+
+    // representations other than CompressedSparseRowRepresentation are copied, later modifications are not seen
+    public ParallelBreadthFirstSearch(GraphRepresentation<V> graphRepresentation, ForkJoinPool pool) {
+        this.graph = graphRepresentation instanceof CompressedSparseRowRepresentation
+                ? (CompressedSparseRowRepresentation<V>) graphRepresentation
+                : new CompressedSparseRowRepresentation<>(graphRepresentation);
+        this.pool = pool;
+    }
+
+    public BreadthFirstSearchResult<V> search(V startVertex) {
+        QueryMetrics metrics = this.instrumentation == null ? null : new QueryMetrics("parallel-bfs");
+        long start = metrics == null ? 0 : System.nanoTime();
+        int source = this.graph.getVertexIndex(startVertex);
+        int vertexCount = this.graph.vertexIndexBound();
+        int wordCount = (vertexCount + 63) >>> 6;
+
+        int[] levels = new int[vertexCount];
+        Arrays.fill(levels, -1);
+        AtomicLongArray visited = new AtomicLongArray(wordCount);
+        // vertices in the order they were reached, which groups them by level
+        int[] order = new int[vertexCount];
+        int[] levelOffsets = new int[vertexCount + 2];
+        long[] frontierBits = new long[wordCount];
+        long[] nextBits = new long[wordCount];
+
+        levels[source] = 0;
+        visited.set(source >>> 6, 1L << source);
+        order[0] = source;
+        int frontierStart = 0;
+        int frontierEnd = 1;
+        int level = 0;
+        long unexploredEdges = this.graph.edgeCount() - this.graph.neighbourCount(source);
+        long frontierEdges = this.graph.neighbourCount(source);
+        boolean bottomUp = false;
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.PREPARE, start);
+        }
+
+        while (frontierEnd > frontierStart) {
+            levelOffsets[level + 1] = frontierEnd;
+            int frontierSize = frontierEnd - frontierStart;
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < vertexCount / BETA) {
+                bottomUp = false;
+            }
+            if (metrics != null) {
+                metrics.addFrontierSize(frontierSize);
+                // bottom-up levels stop scanning incoming edges at the first parent found, only top-down ones count
+                if (!bottomUp) {
+                    metrics.edgesRelaxed += frontierEdges;
+                }
+            }
+
+            int nextEnd;
+            if (bottomUp) {
+                Arrays.fill(frontierBits, 0L);
+                for (int i = frontierStart; i < frontierEnd; i++) {
+                    frontierBits[order[i] >>> 6] |= 1L << order[i];
+                }
+                nextEnd = this.bottomUpStep(level + 1, levels, visited, frontierBits, nextBits, order, frontierEnd);
+            } else {
+                nextEnd = this.topDownStep(level + 1, levels, visited, order, frontierStart, frontierEnd);
+            }
+
+            frontierEdges = 0;
+            for (int i = frontierEnd; i < nextEnd; i++) {
+                frontierEdges += this.graph.neighbourCount(order[i]);
+            }
+            unexploredEdges -= frontierEdges;
+            frontierStart = frontierEnd;
+            frontierEnd = nextEnd;
+            level++;
+        }
+
+        if (metrics != null) {
+            start = metrics.endPhase(QueryMetrics.Phase.SEARCH, start);
+        }
+        BitSet reached = new BitSet(vertexCount);
+        for (int i = 0; i < frontierEnd; i++) {
+            reached.set(order[i]);
+        }
+        BreadthFirstSearchResult<V> result = new BreadthFirstSearchResult<>(this.graph, levels, reached,
+                Arrays.copyOf(levelOffsets, level + 1), Arrays.copyOf(order, frontierEnd));
+        if (metrics != null) {
+            metrics.endPhase(QueryMetrics.Phase.RESULT, start);
+            metrics.verticesSettled = frontierEnd;
+            this.instrumentation.queryFinished(metrics);
+        }
+        return result;
+    }
+
+    // receives the metrics of every following search, null turns it off
+    public void setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    public CompressedSparseRowRepresentation<V> getGraph() {
+        return this.graph;
+    }
+
+    // appends the next level to order and returns its new end
+    private int topDownStep(int nextLevel, int[] levels, AtomicLongArray visited, int[] order, int frontierStart, int frontierEnd) {
+        AtomicInteger nextEnd = new AtomicInteger(frontierEnd);
+        this.pool.submit(() -> IntStream.range(frontierStart, frontierEnd).parallel().forEach(i -> {
+            int vertex = order[i];
+            int neighbourCount = this.graph.neighbourCount(vertex);
+            for (int j = 0; j < neighbourCount; j++) {
+                int neighbour = this.graph.getNeighbourIndex(vertex, j);
+                if (markVisited(visited, neighbour)) {
+                    levels[neighbour] = nextLevel;
+                    order[nextEnd.getAndIncrement()] = neighbour;
+                }
+            }
+        })).join();
+        return nextEnd.get();
+    }
+
+    // each task owns a range of bitset words, so only the word of its own vertices is ever written
+    private int bottomUpStep(int nextLevel, int[] levels, AtomicLongArray visited, long[] frontierBits, long[] nextBits,
+                             int[] order, int frontierEnd) {
+        int vertexCount = levels.length;
+        int wordCount = frontierBits.length;
+        int taskCount = (wordCount + WORDS_PER_TASK - 1) / WORDS_PER_TASK;
+        this.pool.submit(() -> IntStream.range(0, taskCount).parallel().forEach(task -> {
+            int lastWord = Math.min(wordCount, (task + 1) * WORDS_PER_TASK);
+            for (int word = task * WORDS_PER_TASK; word < lastWord; word++) {
+                long unvisited = ~visited.get(word);
+                long found = 0L;
+                while (unvisited != 0L) {
+                    int vertex = (word << 6) + Long.numberOfTrailingZeros(unvisited);
+                    unvisited &= unvisited - 1;
+                    if (vertex >= vertexCount) {
+                        break;
+                    }
+                    int parentCount = this.graph.parentCount(vertex);
+                    for (int j = 0; j < parentCount; j++) {
+                        int parent = this.graph.getParentIndex(vertex, j);
+                        if ((frontierBits[parent >>> 6] & (1L << parent)) != 0L) {
+                            levels[vertex] = nextLevel;
+                            found |= 1L << vertex;
+                            break;
+                        }
+                    }
+                }
+                nextBits[word] = found;
+                if (found != 0L) {
+                    visited.set(word, visited.get(word) | found);
+                }
+            }
+        })).join();
+
+        int nextEnd = frontierEnd;
+        for (int word = 0; word < wordCount; word++) {
+            long bits = nextBits[word];
+            while (bits != 0L) {
+                order[nextEnd++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return nextEnd;
+    }
+
+    private static boolean markVisited(AtomicLongArray visited, int vertex) {
+        int word = vertex >>> 6;
+        long bit = 1L << vertex;
+        while (true) {
+            long current = visited.get(word);
+            if ((current & bit) != 0L) {
+                return false;
+            }
+            if (visited.compareAndSet(word, current, current | bit)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// runs batches of single source queries concurrently on an immutable snapshot of the graph,
+// every worker thread keeps its own DijkstraEngine so the queries share no mutable state
+public class ParallelShortestPaths<V> {
+    private final CompressedSparseRowRepresentation<V> graph;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<DijkstraEngine> engines;
+
+    public ParallelShortestPaths(GraphRepresentation<V> graphRepresentation) {
+        this(graphRepresentation, ForkJoinPool.commonPool());
+    }
+
+    // representations other than CompressedSparseRowRepresentation are copied, later modifications are not seen
+    public ParallelShortestPaths(GraphRepresentation<V> graphRepresentation, ForkJoinPool pool) {
+        this.graph = graphRepresentation instanceof CompressedSparseRowRepresentation
+                ? (CompressedSparseRowRepresentation<V>) graphRepresentation
+                : new CompressedSparseRowRepresentation<>(graphRepresentation);
+        this.pool = pool;
+        this.engines = ThreadLocal.withInitial(() -> new DijkstraEngine(this.graph));
+    }
+
+    // distances from every source to every vertex, columns follow getVertexList order
+    public DistanceMatrix<V> getDistances(List<V> sources) {
+        return this.getDistances(sources, this.graph.getVertexList());
+    }
+
+    // many to many, each query stops once all targets are settled
+    public DistanceMatrix<V> getDistances(List<V> sources, List<V> targets) {
+        int[] sourceIndexes = this.toIndexes(sources);
+        int[] targetIndexes = this.toIndexes(targets);
+        int columns = targetIndexes.length;
+        // the matrix is one array, so sources times targets has to fit in an int, row * columns below then does too
+        int cells;
+        try {
+            cells = Math.multiplyExact(sourceIndexes.length, columns);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too many sources times targets for one distance matrix, query them in batches!");
+        }
+        double[] distances = new double[cells];
+
+        this.pool.submit(() -> IntStream.range(0, sourceIndexes.length).parallel().forEach(row -> {
+            DijkstraEngine engine = this.engines.get();
+            engine.run(sourceIndexes[row], targetIndexes);
+            int offset = row * columns;
+            for (int column = 0; column < columns; column++) {
+                distances[offset + column] = engine.getDistance(targetIndexes[column]);
+            }
+        })).join();
+
+        return new DistanceMatrix<>(sources, targets, distances);
+    }
+
+    public CompressedSparseRowRepresentation<V> getGraph() {
+        return this.graph;
+    }
+
+    private int[] toIndexes(List<V> vertices) {
+        int[] indexes = new int[vertices.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = this.graph.getVertexIndex(vertices.get(i));
+        }
+        return indexes;
+    }
+}
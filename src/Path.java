@@ -1,8 +1,10 @@
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Path<V> {
     private List<Edge<V>> edges;
+    private double length;
 
     public Path() {
         edges = new ArrayList<>();
@@ -15,6 +17,15 @@ public class Path<V> {
 
     public Path(List<Edge<V>> edges) {
         this.edges = edges;
+        for(Edge<V> edge : edges) {
+            this.length += edge.weight;
+        }
+    }
+
+    // for callers that already know the length, e.g. the shortest path distance
+    Path(List<Edge<V>> edges, double length) {
+        this.edges = edges;
+        this.length = length;
     }
 
     public V getStartVertex() {
@@ -32,15 +43,12 @@ public class Path<V> {
     }
 
     public double getLength() {
-        double length = 0.0;
-        for(Edge<V> edge : edges) {
-            length += edge.weight;
-        }
         return length;
     }
 
+    // read-only, so the length computed on construction stays valid
     public List<Edge<V>> getEdges() {
-        return edges;
+        return Collections.unmodifiableList(edges);
     }
 
     @Override
@@ -0,0 +1,106 @@
+import java.util.Arrays;
+
+// counters and phase times of one query, handed to the Instrumentation of the algorithm once the query is done.
+// Algorithms only create one while instrumentation is set, so counters that are cheap to derive afterwards are
+// derived instead of being counted in the inner loops.
+public class QueryMetrics {
+    public enum Phase {
+        // clearing or allocating the search buffers
+        PREPARE,
+        // settling vertices, relaxing edges, expanding frontiers
+        SEARCH,
+        // building the returned Path, ShortestPathTree or vertex set
+        RESULT
+    }
+
+    private final String algorithm;
+    long verticesSettled;
+    long edgesRelaxed;
+    long heapPushes;
+    long heapPops;
+    long stalePops;
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private int[] frontierSizes = new int[0];
+    private int levelCount;
+
+    public QueryMetrics(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getAlgorithm() {
+        return this.algorithm;
+    }
+
+    public long getVerticesSettled() {
+        return this.verticesSettled;
+    }
+
+    // edges looked at from settled or expanded vertices, whether or not they improved a distance
+    public long getEdgesRelaxed() {
+        return this.edgesRelaxed;
+    }
+
+    // inserts into the priority queue, for DeltaStepping appends to a bucket
+    public long getHeapPushes() {
+        return this.heapPushes;
+    }
+
+    public long getHeapPops() {
+        return this.heapPops;
+    }
+
+    // pops of entries whose distance was improved after they were queued, always 0 for the decrease-key heaps
+    public long getStalePops() {
+        return this.stalePops;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return this.phaseNanos[phase.ordinal()];
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (long nanos : this.phaseNanos) {
+            total += nanos;
+        }
+        return total;
+    }
+
+    // vertices per BFS level or per DeltaStepping light phase, empty for the other algorithms
+    public int[] getFrontierSizes() {
+        return Arrays.copyOf(this.frontierSizes, this.levelCount);
+    }
+
+    void addFrontierSize(int size) {
+        if (this.levelCount == this.frontierSizes.length) {
+            this.frontierSizes = Arrays.copyOf(this.frontierSizes, Math.max(16, this.levelCount * 2));
+        }
+        this.frontierSizes[this.levelCount++] = size;
+    }
+
+    // adds the time since start to the phase and returns the current time as the start of the next one
+    long endPhase(Phase phase, long start) {
+        long now = System.nanoTime();
+        this.phaseNanos[phase.ordinal()] += now - start;
+        return now;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(this.algorithm).append(": ")
+                .append(this.verticesSettled).append(" settled, ")
+                .append(this.edgesRelaxed).append(" edges relaxed, ")
+                .append(this.heapPushes).append(" pushes, ")
+                .append(this.heapPops).append(" pops, ")
+                .append(this.stalePops).append(" stale pops");
+        if (this.levelCount > 0) {
+            builder.append(", ").append(this.levelCount).append(" frontiers of at most ")
+                    .append(Arrays.stream(this.frontierSizes, 0, this.levelCount).max().getAsInt()).append(" vertices");
+        }
+        for (Phase phase : Phase.values()) {
+            builder.append(", ").append(phase.name().toLowerCase()).append(' ')
+                    .append(this.phaseNanos[phase.ordinal()] / 1000).append(" us");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,184 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+// size bounded LRU cache of shortest path results, every entry is dropped as soon as the
+// representation's modification count moves, so a stale answer is never returned. Not thread safe.
+public class ShortestPathCache<V> {
+    private final GraphRepresentation<V> graph;
+    private final int capacity;
+    private final LinkedHashMap<Key, Object> entries;
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    private static final class Key {
+        final Object source;
+        // null for single source trees
+        final Object target;
+        final boolean isTree;
+
+        Key(Object source, Object target, boolean isTree) {
+            this.source = source;
+            this.target = target;
+            this.isTree = isTree;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return isTree == key.isTree && Objects.equals(source, key.source) && Objects.equals(target, key.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, target, isTree);
+        }
+    }
+
+    private static final class PairResult<V> {
+        // Double.NaN until a length query or a path query has filled it in
+        double length = Double.NaN;
+        Path<V> path;
+        boolean hasPath;
+    }
+
+    public ShortestPathCache(GraphRepresentation<V> graph, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive!");
+        }
+        this.graph = graph;
+        this.capacity = capacity;
+        this.version = graph.getModificationCount();
+        this.entries = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > ShortestPathCache.this.capacity) {
+                    ShortestPathCache.this.evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public ShortestPathTree<V> getTree(V source, Supplier<ShortestPathTree<V>> compute) {
+        this.validate();
+        Key key = new Key(source, null, true);
+        ShortestPathTree<V> tree = this.entry(key);
+        if (tree != null) {
+            this.hits++;
+            return tree;
+        }
+        this.misses++;
+        tree = compute.get();
+        this.entries.put(key, tree);
+        return tree;
+    }
+
+    public Path<V> getPath(V source, V target, Supplier<Path<V>> compute) {
+        this.validate();
+        ShortestPathTree<V> tree = this.cachedTree(source);
+        if (tree != null) {
+            this.hits++;
+            return tree.pathTo(target);
+        }
+        Key key = new Key(source, target, false);
+        PairResult<V> result = this.entry(key);
+        if (result != null && result.hasPath) {
+            this.hits++;
+            return result.path;
+        }
+        this.misses++;
+        Path<V> path = compute.get();
+        result = this.pairResult(key, result);
+        result.path = path;
+        result.hasPath = true;
+        result.length = path == null ? Double.POSITIVE_INFINITY : path.getLength();
+        return path;
+    }
+
+    public double getLength(V source, V target, Supplier<Double> compute) {
+        this.validate();
+        ShortestPathTree<V> tree = this.cachedTree(source);
+        if (tree != null) {
+            this.hits++;
+            return tree.distanceTo(target);
+        }
+        Key key = new Key(source, target, false);
+        PairResult<V> result = this.entry(key);
+        if (result != null && !Double.isNaN(result.length)) {
+            this.hits++;
+            return result.length;
+        }
+        this.misses++;
+        double length = compute.get();
+        this.pairResult(key, result).length = length;
+        return length;
+    }
+
+    public void clear() {
+        this.entries.clear();
+    }
+
+    public int size() {
+        this.validate();
+        return this.entries.size();
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public long getHitCount() {
+        return this.hits;
+    }
+
+    public long getMissCount() {
+        return this.misses;
+    }
+
+    public long getEvictionCount() {
+        return this.evictions;
+    }
+
+    // number of times the cache was emptied because the graph changed
+    public long getInvalidationCount() {
+        return this.invalidations;
+    }
+
+    private void validate() {
+        long currentVersion = this.graph.getModificationCount();
+        if (currentVersion != this.version) {
+            if (!this.entries.isEmpty()) {
+                this.invalidations++;
+                this.entries.clear();
+            }
+            this.version = currentVersion;
+        }
+    }
+
+    private ShortestPathTree<V> cachedTree(V source) {
+        return this.entry(new Key(source, null, true));
+    }
+
+    // trees sit under tree keys and pair results under pair keys, both for vertices of type V
+    @SuppressWarnings("unchecked")
+    private <T> T entry(Key key) {
+        return (T) this.entries.get(key);
+    }
+
+    // only called once compute returned, a query that threw leaves nothing behind
+    private PairResult<V> pairResult(Key key, PairResult<V> result) {
+        if (result == null) {
+            result = new PairResult<>();
+            this.entries.put(key, result);
+        }
+        return result;
+    }
+}
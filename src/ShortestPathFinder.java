@@ -0,0 +1,13 @@
+// point to point shortest path strategy, see Graph.setShortestPathFinder
+public interface ShortestPathFinder<V> {
+    // null when endVertex is not reachable
+    Path<V> getShortestPath(V startVertex, V endVertex);
+    // Double.POSITIVE_INFINITY when endVertex is not reachable
+    double getShortestPathLength(V startVertex, V endVertex);
+    // vertices settled by the last query
+    int getSettledCount();
+
+    // receives the metrics of every following query, null turns it off. Finders without metrics ignore it.
+    default void setInstrumentation(Instrumentation instrumentation) {
+    }
+}
@@ -0,0 +1,112 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+// result of a single source query, paths are only built when asked for. The tree refers to the graph by vertex
+// index, which a later modification may hand to another vertex, so reading it after the graph changed throws
+// IllegalStateException.
+public class ShortestPathTree<V> {
+    private final GraphRepresentation<V> graph;
+    private final long modificationCount;
+    private final int sourceIndex;
+    private final double[] distances;
+    private final int[] parents;
+
+    ShortestPathTree(GraphRepresentation<V> graph, int sourceIndex, double[] distances, int[] parents) {
+        this.graph = graph;
+        this.modificationCount = graph.getModificationCount();
+        this.sourceIndex = sourceIndex;
+        this.distances = distances;
+        this.parents = parents;
+    }
+
+    // copies the settled part of the engine's last query
+    static <V> ShortestPathTree<V> fromEngine(GraphRepresentation<V> graph, DijkstraEngine engine) {
+        int bound = graph.vertexIndexBound();
+        double[] distances = new double[bound];
+        int[] parents = new int[bound];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+        for (int i = 0; i < engine.settledCount(); i++) {
+            int vertexIndex = engine.getSettledAt(i);
+            distances[vertexIndex] = engine.getDistance(vertexIndex);
+            parents[vertexIndex] = engine.getParent(vertexIndex);
+        }
+        return new ShortestPathTree<>(graph, engine.getSourceIndex(), distances, parents);
+    }
+
+    public V getSource() {
+        this.checkCurrent();
+        return this.graph.getVertexAt(this.sourceIndex);
+    }
+
+    public boolean hasPathTo(V vertex) {
+        return this.distanceTo(vertex) != Double.POSITIVE_INFINITY;
+    }
+
+    // Double.POSITIVE_INFINITY when the vertex is not reachable
+    public double distanceTo(V vertex) {
+        this.checkCurrent();
+        int vertexIndex = this.graph.getVertexIndex(vertex);
+        return vertexIndex < this.distances.length ? this.distances[vertexIndex] : Double.POSITIVE_INFINITY;
+    }
+
+    // null when the vertex is not reachable
+    public Path<V> pathTo(V vertex) {
+        if (!this.hasPathTo(vertex)) {
+            return null;
+        }
+        int vertexIndex = this.graph.getVertexIndex(vertex);
+        return buildPath(this.graph, this.sourceIndex, vertexIndex, idx -> this.parents[idx], this.distances[vertexIndex]);
+    }
+
+    public List<V> getReachedVertices() {
+        this.checkCurrent();
+        List<V> reachedVertices = new ArrayList<>();
+        for (int i = 0; i < this.distances.length; i++) {
+            if (this.distances[i] != Double.POSITIVE_INFINITY) {
+                reachedVertices.add(this.graph.getVertexAt(i));
+            }
+        }
+        return reachedVertices;
+    }
+
+    public List<Path<V>> getPaths() {
+        this.checkCurrent();
+        List<Path<V>> paths = new ArrayList<>();
+        for (int i = 0; i < this.distances.length; i++) {
+            if (this.distances[i] != Double.POSITIVE_INFINITY) {
+                paths.add(buildPath(this.graph, this.sourceIndex, i, idx -> this.parents[idx], this.distances[i]));
+            }
+        }
+        return paths;
+    }
+
+    // pathTo goes through distanceTo, so every public read is checked
+    private void checkCurrent() {
+        if (this.graph.getModificationCount() != this.modificationCount) {
+            throw new IllegalStateException("Graph was modified after the tree was built!");
+        }
+    }
+
+    static <V> Path<V> buildPath(GraphRepresentation<V> graph, int startIndex, int endIndex, IntUnaryOperator parentOf, double length) {
+        if (endIndex == startIndex) {
+            return new Path<>(graph.getVertexAt(startIndex));
+        }
+
+        List<Edge<V>> listOfEdges = new ArrayList<>();
+        int currentIndex = endIndex;
+        while (currentIndex != startIndex) {
+            int parentIndex = parentOf.applyAsInt(currentIndex);
+            V parent = graph.getVertexAt(parentIndex);
+            V currentVertex = graph.getVertexAt(currentIndex);
+            listOfEdges.add(new Edge<>(parent, currentVertex, graph.getEdgeWeight(parent, currentVertex)));
+            currentIndex = parentIndex;
+        }
+
+        Collections.reverse(listOfEdges);
+        return new Path<>(listOfEdges, length);
+    }
+}
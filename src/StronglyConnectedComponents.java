@@ -0,0 +1,177 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Tarjan's algorithm with an explicit stack, O(V + E). Components are numbered in topological order of the
+// condensation, an edge between two components always goes from the lower id to the higher one.
+// Computed once on construction, later modifications of the representation are not seen.
+public class StronglyConnectedComponents<V> {
+    private final GraphRepresentation<V> graph;
+    // indexed by vertex index, -1 for empty slots
+    private final int[] componentIds;
+    private final int componentCount;
+    // vertices of component c are members[memberOffsets[c]] .. members[memberOffsets[c + 1] - 1]
+    private final int[] memberOffsets;
+    private final int[] members;
+
+    public StronglyConnectedComponents(GraphRepresentation<V> graphRepresentation) {
+        graphRepresentation = graphRepresentation.snapshot();
+        this.graph = graphRepresentation;
+        int bound = graphRepresentation.vertexIndexBound();
+        this.componentIds = new int[bound];
+        Arrays.fill(this.componentIds, -1);
+
+        // discovery order + 1, 0 for vertices not visited yet
+        int[] discovery = new int[bound];
+        int[] lowLinks = new int[bound];
+        int[] tarjanStack = new int[bound];
+        int tarjanTop = 0;
+        // DFS call stack, the vertex and the position of the next neighbour to look at
+        int[] callVertices = new int[bound];
+        int[] callPositions = new int[bound];
+        int counter = 0;
+        int components = 0;
+
+        for (int root = 0; root < bound; root++) {
+            if (discovery[root] != 0 || graphRepresentation.getVertexAt(root) == null) {
+                continue;
+            }
+            discovery[root] = lowLinks[root] = ++counter;
+            tarjanStack[tarjanTop++] = root;
+            int callTop = 0;
+            callVertices[0] = root;
+            callPositions[0] = 0;
+
+            while (callTop >= 0) {
+                int vertex = callVertices[callTop];
+                int position = callPositions[callTop];
+                if (position < graphRepresentation.neighbourCount(vertex)) {
+                    callPositions[callTop]++;
+                    int neighbour = graphRepresentation.getNeighbourIndex(vertex, position);
+                    if (discovery[neighbour] == 0) {
+                        discovery[neighbour] = lowLinks[neighbour] = ++counter;
+                        tarjanStack[tarjanTop++] = neighbour;
+                        callTop++;
+                        callVertices[callTop] = neighbour;
+                        callPositions[callTop] = 0;
+                    } else if (this.componentIds[neighbour] < 0) {
+                        // visited without a component yet means the neighbour is still on the Tarjan stack
+                        lowLinks[vertex] = Math.min(lowLinks[vertex], discovery[neighbour]);
+                    }
+                    continue;
+                }
+
+                callTop--;
+                if (lowLinks[vertex] == discovery[vertex]) {
+                    int member;
+                    do {
+                        member = tarjanStack[--tarjanTop];
+                        this.componentIds[member] = components;
+                    } while (member != vertex);
+                    components++;
+                }
+                if (callTop >= 0) {
+                    int parent = callVertices[callTop];
+                    lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[vertex]);
+                }
+            }
+        }
+        this.componentCount = components;
+
+        // Tarjan finishes sink components first, reverse the ids to get a topological order
+        this.memberOffsets = new int[components + 1];
+        for (int i = 0; i < bound; i++) {
+            if (this.componentIds[i] >= 0) {
+                this.componentIds[i] = components - 1 - this.componentIds[i];
+                this.memberOffsets[this.componentIds[i] + 1]++;
+            }
+        }
+        for (int c = 0; c < components; c++) {
+            this.memberOffsets[c + 1] += this.memberOffsets[c];
+        }
+        this.members = new int[this.memberOffsets[components]];
+        int[] fill = Arrays.copyOf(this.memberOffsets, components);
+        for (int i = 0; i < bound; i++) {
+            if (this.componentIds[i] >= 0) {
+                this.members[fill[this.componentIds[i]]++] = i;
+            }
+        }
+    }
+
+    public int getComponentCount() {
+        return this.componentCount;
+    }
+
+    public int getComponentId(V vertex) {
+        return this.componentIds[this.graph.getVertexIndex(vertex)];
+    }
+
+    // indexed by vertex index, the backing array, not a copy
+    public int[] getComponentIds() {
+        return this.componentIds;
+    }
+
+    public boolean isStronglyConnected(V vertexFrom, V vertexTo) {
+        return this.getComponentId(vertexFrom) == this.getComponentId(vertexTo);
+    }
+
+    public int getComponentSize(int componentId) {
+        this.checkComponentId(componentId);
+        return this.memberOffsets[componentId + 1] - this.memberOffsets[componentId];
+    }
+
+    public List<V> getComponent(int componentId) {
+        this.checkComponentId(componentId);
+        List<V> component = new ArrayList<>(this.getComponentSize(componentId));
+        for (int i = this.memberOffsets[componentId]; i < this.memberOffsets[componentId + 1]; i++) {
+            component.add(this.graph.getVertexAt(this.members[i]));
+        }
+        return component;
+    }
+
+    public List<List<V>> getComponents() {
+        List<List<V>> components = new ArrayList<>(this.componentCount);
+        for (int c = 0; c < this.componentCount; c++) {
+            components.add(this.getComponent(c));
+        }
+        return components;
+    }
+
+    // one vertex per component id, an edge between two components weighs as much as the lightest edge joining them
+    public Graph<Integer> getCondensation() {
+        AdjacencyListRepresentation<Integer> condensation = new AdjacencyListRepresentation<>();
+        for (int c = 0; c < this.componentCount; c++) {
+            condensation.addVertex(c);
+        }
+        for (int vertex = 0; vertex < this.componentIds.length; vertex++) {
+            int componentFrom = this.componentIds[vertex];
+            if (componentFrom < 0) {
+                continue;
+            }
+            int neighbourCount = this.graph.neighbourCount(vertex);
+            for (int i = 0; i < neighbourCount; i++) {
+                int componentTo = this.componentIds[this.graph.getNeighbourIndex(vertex, i)];
+                if (componentTo == componentFrom) {
+                    continue;
+                }
+                double weight = this.graph.getNeighbourWeight(vertex, i);
+                if (!condensation.hasEdge(componentFrom, componentTo)) {
+                    condensation.addEdge(componentFrom, componentTo, weight);
+                } else if (weight < condensation.getEdgeWeight(componentFrom, componentTo)) {
+                    condensation.setEdgeWeight(componentFrom, componentTo, weight);
+                }
+            }
+        }
+        return new Graph<>(condensation);
+    }
+
+    public GraphRepresentation<V> getGraph() {
+        return this.graph;
+    }
+
+    private void checkComponentId(int componentId) {
+        if (componentId < 0 || componentId >= this.componentCount) {
+            throw new IllegalArgumentException("Component does not exist!");
+        }
+    }
+}
@@ -0,0 +1,174 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// live read-only view of a representation with every edge reversed, the representation must track incoming edges
+public class TransposedRepresentation<V> implements GraphRepresentation<V> {
+    private final GraphRepresentation<V> representation;
+
+    public TransposedRepresentation(GraphRepresentation<V> representation) {
+        if (!representation.hasIncomingEdges()) {
+            throw new IllegalArgumentException("Representation does not track incoming edges!");
+        }
+        this.representation = representation;
+    }
+
+    @Override
+    public void addVertex(V vertex) {
+        throw new UnsupportedOperationException("Transposed view is read-only!");
+    }
+
+    @Override
+    public void removeVertex(V vertex) {
+        throw new UnsupportedOperationException("Transposed view is read-only!");
+    }
+
+    @Override
+    public void addEdge(V vertexFrom, V vertexTo, double weight) {
+        throw new UnsupportedOperationException("Transposed view is read-only!");
+    }
+
+    @Override
+    public void removeEdge(V vertexFrom, V vertexTo) {
+        throw new UnsupportedOperationException("Transposed view is read-only!");
+    }
+
+    @Override
+    public List<V> getVertexList() {
+        return this.representation.getVertexList();
+    }
+
+    @Override
+    public List<V> getVertexNeighbours(V vertex) {
+        int vertexIndex = this.representation.getVertexIndex(vertex);
+        int parentCount = this.representation.parentCount(vertexIndex);
+        List<V> neighbours = new ArrayList<>(parentCount);
+        for (int i = 0; i < parentCount; i++) {
+            neighbours.add(this.representation.getVertexAt(this.representation.getParentIndex(vertexIndex, i)));
+        }
+        return neighbours;
+    }
+
+    @Override
+    public List<Edge<V>> getEdgeList() {
+        List<Edge<V>> edges = this.representation.getEdgeList();
+        List<Edge<V>> invertedEdges = new ArrayList<>(edges.size());
+        for (Edge<V> edge : edges) {
+            invertedEdges.add(new Edge<>(edge.vertexTo, edge.vertexFrom, edge.weight));
+        }
+        return invertedEdges;
+    }
+
+    @Override
+    public boolean hasVertex(V vertex) {
+        return this.representation.hasVertex(vertex);
+    }
+
+    @Override
+    public boolean hasEdge(V vertexFrom, V vertexTo) {
+        return this.representation.hasEdge(vertexTo, vertexFrom);
+    }
+
+    @Override
+    public double getEdgeWeight(V vertexFrom, V vertexTo) {
+        return this.representation.getEdgeWeight(vertexTo, vertexFrom);
+    }
+
+    @Override
+    public void setEdgeWeight(V vertexFrom, V vertexTo, double weight) {
+        throw new UnsupportedOperationException("Transposed view is read-only!");
+    }
+
+    @Override
+    public int vertexCount() {
+        return this.representation.vertexCount();
+    }
+
+    @Override
+    public long getModificationCount() {
+        return this.representation.getModificationCount();
+    }
+
+    @Override
+    public int getVertexIndex(V vertex) {
+        return this.representation.getVertexIndex(vertex);
+    }
+
+    @Override
+    public V getVertexAt(int vertexIndex) {
+        return this.representation.getVertexAt(vertexIndex);
+    }
+
+    @Override
+    public int vertexIndexBound() {
+        return this.representation.vertexIndexBound();
+    }
+
+    @Override
+    public int neighbourCount(int vertexIndex) {
+        return this.representation.parentCount(vertexIndex);
+    }
+
+    @Override
+    public int getNeighbourIndex(int vertexIndex, int position) {
+        return this.representation.getParentIndex(vertexIndex, position);
+    }
+
+    @Override
+    public double getNeighbourWeight(int vertexIndex, int position) {
+        return this.representation.getParentWeight(vertexIndex, position);
+    }
+
+    @Override
+    public boolean isUndirected() {
+        return this.representation.isUndirected();
+    }
+
+    // transposes the snapshot, the view itself follows the live representation
+    @Override
+    public GraphRepresentation<V> snapshot() {
+        GraphRepresentation<V> snapshot = this.representation.snapshot();
+        return snapshot == this.representation ? this : new TransposedRepresentation<>(snapshot);
+    }
+
+    @Override
+    public boolean hasIncomingEdges() {
+        return true;
+    }
+
+    @Override
+    public int parentCount(int vertexIndex) {
+        return this.representation.neighbourCount(vertexIndex);
+    }
+
+    @Override
+    public int getParentIndex(int vertexIndex, int position) {
+        return this.representation.getNeighbourIndex(vertexIndex, position);
+    }
+
+    @Override
+    public double getParentWeight(int vertexIndex, int position) {
+        return this.representation.getNeighbourWeight(vertexIndex, position);
+    }
+
+    public GraphRepresentation<V> getRepresentation() {
+        return this.representation;
+    }
+
+    @Override
+    public void print() {
+        System.out.println("Printing graph...");
+        for (int i = 0; i < this.vertexIndexBound(); i++) {
+            V vertexFrom = this.getVertexAt(i);
+            if (vertexFrom == null) {
+                continue;
+            }
+            System.out.print(vertexFrom + " -> ");
+            for (int j = 0; j < this.neighbourCount(i); j++) {
+                V vertexTo = this.getVertexAt(this.getNeighbourIndex(i, j));
+                System.out.print("(vertex: " + vertexTo + ", weight: " + this.getNeighbourWeight(i, j) + "); ");
+            }
+            System.out.println();
+        }
+        System.out.println("End of graph");
+    }
+}
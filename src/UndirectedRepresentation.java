@@ -0,0 +1,334 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+// every edge is stored once and can be walked from both ends, so addEdge(a, b) also makes b -> a an edge.
+// Edges live in flat arrays, each vertex keeps the ids of its incident edges and where in those lists every edge sits,
+// which makes removals O(1) by moving the last entry into the freed place.
+public class UndirectedRepresentation<V> implements GraphRepresentation<V> {
+    // null marks a removed vertex whose slot waits for reuse
+    private final ArrayList<V> vertices = new ArrayList<>();
+    private final HashMap<V, Integer> vertexIndexes = new HashMap<>();
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private int[][] incidentEdges = new int[16][];
+    private int[] degrees = new int[16];
+
+    // edge e joins edgeEnds[2e] and edgeEnds[2e + 1], edgePositions tells where it sits in their incidence lists,
+    // a self loop is listed once and has -1 as its second position
+    private int[] edgeEnds = new int[32];
+    private int[] edgePositions = new int[32];
+    private double[] edgeWeights = new double[16];
+    private int edgeCount;
+    // both end indexes packed smaller first -> edge id
+    private final HashMap<Long, Integer> edgeIds = new HashMap<>();
+    private long modificationCount;
+
+    @Override
+    public void addVertex(V vertex) {
+        if (vertex == null) {
+            throw new IllegalArgumentException("Vertex must not be null!");
+        }
+        if (this.hasVertex(vertex)) {
+            throw new IllegalArgumentException("Vertex already exists!");
+        }
+        this.modificationCount++;
+        int index;
+        if (this.freeSlotCount > 0) {
+            index = this.freeSlots[--this.freeSlotCount];
+            this.vertices.set(index, vertex);
+        } else {
+            index = this.vertices.size();
+            this.vertices.add(vertex);
+            if (index == this.degrees.length) {
+                this.incidentEdges = Arrays.copyOf(this.incidentEdges, index * 2);
+                this.degrees = Arrays.copyOf(this.degrees, index * 2);
+            }
+        }
+        this.vertexIndexes.put(vertex, index);
+        this.incidentEdges[index] = new int[4];
+        this.degrees[index] = 0;
+    }
+
+    @Override
+    public void removeVertex(V vertex) {
+        Integer index = this.vertexIndexes.remove(vertex);
+        if (index == null) {
+            return;
+        }
+
+        this.modificationCount++;
+        while (this.degrees[index] > 0) {
+            this.removeEdgeAt(this.incidentEdges[index][this.degrees[index] - 1]);
+        }
+        this.vertices.set(index, null);
+        this.incidentEdges[index] = null;
+        if (this.freeSlotCount == this.freeSlots.length) {
+            this.freeSlots = Arrays.copyOf(this.freeSlots, this.freeSlotCount * 2);
+        }
+        this.freeSlots[this.freeSlotCount++] = index;
+    }
+
+    @Override
+    public void addEdge(V vertexFrom, V vertexTo, double weight) {
+        if (!this.hasVertex(vertexFrom) || !this.hasVertex(vertexTo)) {
+            throw new IllegalArgumentException("Not both vertices exist!");
+        }
+        int indexFrom = this.vertexIndexes.get(vertexFrom);
+        int indexTo = this.vertexIndexes.get(vertexTo);
+        long key = edgeKey(indexFrom, indexTo);
+        if (this.edgeIds.containsKey(key)) {
+            throw new IllegalArgumentException("Edge already exists!");
+        }
+
+        this.modificationCount++;
+        int edge = this.edgeCount++;
+        if (edge == this.edgeWeights.length) {
+            this.edgeEnds = Arrays.copyOf(this.edgeEnds, edge * 4);
+            this.edgePositions = Arrays.copyOf(this.edgePositions, edge * 4);
+            this.edgeWeights = Arrays.copyOf(this.edgeWeights, edge * 2);
+        }
+        this.edgeEnds[2 * edge] = indexFrom;
+        this.edgeEnds[2 * edge + 1] = indexTo;
+        this.edgeWeights[edge] = weight;
+        this.edgePositions[2 * edge] = this.appendIncidentEdge(indexFrom, edge);
+        this.edgePositions[2 * edge + 1] = indexFrom == indexTo ? -1 : this.appendIncidentEdge(indexTo, edge);
+        this.edgeIds.put(key, edge);
+    }
+
+    @Override
+    public void removeEdge(V vertexFrom, V vertexTo) {
+        if (!this.hasVertex(vertexFrom) || !this.hasVertex(vertexTo)) {
+            return;
+        }
+        Integer edge = this.edgeIds.get(edgeKey(this.vertexIndexes.get(vertexFrom), this.vertexIndexes.get(vertexTo)));
+        if (edge == null) {
+            return;
+        }
+        this.modificationCount++;
+        this.removeEdgeAt(edge);
+    }
+
+    @Override
+    public List<V> getVertexList() {
+        List<V> vertexList = new ArrayList<>(this.vertexCount());
+        for (V vertex : this.vertices) {
+            if (vertex != null) {
+                vertexList.add(vertex);
+            }
+        }
+        return vertexList;
+    }
+
+    @Override
+    public List<V> getVertexNeighbours(V vertex) {
+        int vertexIndex = this.getVertexIndex(vertex);
+        List<V> neighbours = new ArrayList<>(this.degrees[vertexIndex]);
+        for (int i = 0; i < this.degrees[vertexIndex]; i++) {
+            neighbours.add(this.vertices.get(this.getNeighbourIndex(vertexIndex, i)));
+        }
+        return neighbours;
+    }
+
+    // lists both directions of every edge, like a directed representation holding the same graph would
+    @Override
+    public List<Edge<V>> getEdgeList() {
+        List<Edge<V>> edges = new ArrayList<>(this.edgeCount * 2);
+        for (int edge = 0; edge < this.edgeCount; edge++) {
+            V first = this.vertices.get(this.edgeEnds[2 * edge]);
+            V second = this.vertices.get(this.edgeEnds[2 * edge + 1]);
+            edges.add(new Edge<>(first, second, this.edgeWeights[edge]));
+            if (!first.equals(second)) {
+                edges.add(new Edge<>(second, first, this.edgeWeights[edge]));
+            }
+        }
+        return edges;
+    }
+
+    @Override
+    public boolean hasVertex(V vertex) {
+        return this.vertexIndexes.get(vertex) != null;
+    }
+
+    @Override
+    public boolean hasEdge(V vertexFrom, V vertexTo) {
+        return this.findEdge(vertexFrom, vertexTo) >= 0;
+    }
+
+    @Override
+    public double getEdgeWeight(V vertexFrom, V vertexTo) {
+        int edge = this.findEdge(vertexFrom, vertexTo);
+        if (edge < 0) {
+            throw new IllegalArgumentException("Edge does not exist!");
+        }
+        return this.edgeWeights[edge];
+    }
+
+    @Override
+    public void setEdgeWeight(V vertexFrom, V vertexTo, double weight) {
+        int edge = this.findEdge(vertexFrom, vertexTo);
+        if (edge < 0) {
+            throw new IllegalArgumentException("Edge does not exist!");
+        }
+        this.edgeWeights[edge] = weight;
+        this.modificationCount++;
+    }
+
+    @Override
+    public int vertexCount() {
+        return this.vertices.size() - this.freeSlotCount;
+    }
+
+    // each edge counted once
+    public int edgeCount() {
+        return this.edgeCount;
+    }
+
+    @Override
+    public long getModificationCount() {
+        return this.modificationCount;
+    }
+
+    @Override
+    public int getVertexIndex(V vertex) {
+        Integer vertexIndex = this.vertexIndexes.get(vertex);
+        if (vertexIndex == null) {
+            throw new IllegalArgumentException("Vertex does not exist!");
+        }
+        return vertexIndex;
+    }
+
+    @Override
+    public V getVertexAt(int vertexIndex) {
+        return this.vertices.get(vertexIndex);
+    }
+
+    @Override
+    public int vertexIndexBound() {
+        return this.vertices.size();
+    }
+
+    @Override
+    public int neighbourCount(int vertexIndex) {
+        return this.degrees[vertexIndex];
+    }
+
+    @Override
+    public int getNeighbourIndex(int vertexIndex, int position) {
+        int edge = this.incidentEdges[vertexIndex][position];
+        int first = this.edgeEnds[2 * edge];
+        return first == vertexIndex ? this.edgeEnds[2 * edge + 1] : first;
+    }
+
+    @Override
+    public double getNeighbourWeight(int vertexIndex, int position) {
+        return this.edgeWeights[this.incidentEdges[vertexIndex][position]];
+    }
+
+    @Override
+    public boolean isUndirected() {
+        return true;
+    }
+
+    // incoming edges are the outgoing ones
+    @Override
+    public boolean hasIncomingEdges() {
+        return true;
+    }
+
+    @Override
+    public int parentCount(int vertexIndex) {
+        return this.neighbourCount(vertexIndex);
+    }
+
+    @Override
+    public int getParentIndex(int vertexIndex, int position) {
+        return this.getNeighbourIndex(vertexIndex, position);
+    }
+
+    @Override
+    public double getParentWeight(int vertexIndex, int position) {
+        return this.getNeighbourWeight(vertexIndex, position);
+    }
+
+    @Override
+    public void print() {
+        System.out.println("Printing graph...");
+        for (int i = 0; i < this.vertices.size(); i++) {
+            V vertexFrom = this.vertices.get(i);
+            if (vertexFrom == null) {
+                continue;
+            }
+            System.out.print(vertexFrom + " -- ");
+            for (int j = 0; j < this.degrees[i]; j++) {
+                V vertexTo = this.vertices.get(this.getNeighbourIndex(i, j));
+                System.out.print("(vertex: " + vertexTo + ", weight: " + this.getNeighbourWeight(i, j) + "); ");
+            }
+            System.out.println();
+        }
+        System.out.println("End of graph");
+    }
+
+    private static long edgeKey(int first, int second) {
+        return first < second
+                ? ((long) first << 32) | second
+                : ((long) second << 32) | first;
+    }
+
+    private int findEdge(V vertexFrom, V vertexTo) {
+        if (!this.hasVertex(vertexFrom) || !this.hasVertex(vertexTo)) {
+            throw new IllegalArgumentException("Not both vertices exist!");
+        }
+        Integer edge = this.edgeIds.get(edgeKey(this.vertexIndexes.get(vertexFrom), this.vertexIndexes.get(vertexTo)));
+        return edge != null ? edge : -1;
+    }
+
+    private int appendIncidentEdge(int vertexIndex, int edge) {
+        int degree = this.degrees[vertexIndex];
+        if (degree == this.incidentEdges[vertexIndex].length) {
+            this.incidentEdges[vertexIndex] = Arrays.copyOf(this.incidentEdges[vertexIndex], degree * 2);
+        }
+        this.incidentEdges[vertexIndex][degree] = edge;
+        this.degrees[vertexIndex] = degree + 1;
+        return degree;
+    }
+
+    private void removeEdgeAt(int edge) {
+        int first = this.edgeEnds[2 * edge];
+        int second = this.edgeEnds[2 * edge + 1];
+        this.edgeIds.remove(edgeKey(first, second));
+        this.removeIncidentEdge(first, this.edgePositions[2 * edge]);
+        if (first != second) {
+            this.removeIncidentEdge(second, this.edgePositions[2 * edge + 1]);
+        }
+
+        // the last edge takes over the freed id
+        int lastEdge = --this.edgeCount;
+        if (edge == lastEdge) {
+            return;
+        }
+        for (int end = 0; end < 2; end++) {
+            int position = this.edgePositions[2 * lastEdge + end];
+            this.edgeEnds[2 * edge + end] = this.edgeEnds[2 * lastEdge + end];
+            this.edgePositions[2 * edge + end] = position;
+            if (position >= 0) {
+                this.incidentEdges[this.edgeEnds[2 * lastEdge + end]][position] = edge;
+            }
+        }
+        this.edgeWeights[edge] = this.edgeWeights[lastEdge];
+        this.edgeIds.put(edgeKey(this.edgeEnds[2 * edge], this.edgeEnds[2 * edge + 1]), edge);
+    }
+
+    private void removeIncidentEdge(int vertexIndex, int position) {
+        int lastPosition = --this.degrees[vertexIndex];
+        if (position == lastPosition) {
+            return;
+        }
+        int movedEdge = this.incidentEdges[vertexIndex][lastPosition];
+        this.incidentEdges[vertexIndex][position] = movedEdge;
+        // the moved edge may touch vertexIndex at either end, the end that pointed at the last position is the one
+        int end = this.edgeEnds[2 * movedEdge] == vertexIndex && this.edgePositions[2 * movedEdge] == lastPosition ? 0 : 1;
+        this.edgePositions[2 * movedEdge + end] = position;
+    }
+}
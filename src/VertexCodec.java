@@ -0,0 +1,46 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// turns vertices into bytes for BinaryGraphFormat and back
+public interface VertexCodec<V> {
+    byte[] encode(V vertex);
+
+    // bytes holds exactly one encoded vertex between its position and limit
+    V decode(ByteBuffer bytes);
+
+    VertexCodec<Integer> INTEGER = new VertexCodec<Integer>() {
+        @Override
+        public byte[] encode(Integer vertex) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(vertex).array();
+        }
+
+        @Override
+        public Integer decode(ByteBuffer bytes) {
+            return bytes.getInt();
+        }
+    };
+
+    VertexCodec<Long> LONG = new VertexCodec<Long>() {
+        @Override
+        public byte[] encode(Long vertex) {
+            return ByteBuffer.allocate(Long.BYTES).putLong(vertex).array();
+        }
+
+        @Override
+        public Long decode(ByteBuffer bytes) {
+            return bytes.getLong();
+        }
+    };
+
+    VertexCodec<String> STRING = new VertexCodec<String>() {
+        @Override
+        public byte[] encode(String vertex) {
+            return vertex.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(ByteBuffer bytes) {
+            return StandardCharsets.UTF_8.decode(bytes).toString();
+        }
+    };
+}
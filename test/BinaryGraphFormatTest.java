@@ -0,0 +1,99 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryGraphFormatTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void savedGraphLoadsBackUnchanged() throws IOException {
+        File file = new File(this.directory, "graph.bin");
+        for (long seed = 0; seed < 30; seed++) {
+            Graph<Integer> graph = RandomGraphs.random(seed, 5 + (int) seed * 7, (int) seed * 40, seed % 2 == 0);
+            graph.save(file, VertexCodec.INTEGER);
+            Graph<Integer> loaded = Graph.load(file, VertexCodec.INTEGER);
+            RepresentationParityTest.assertSameGraph(graph.getRepresentation(), loaded.getRepresentation());
+            for (Integer vertex : graph.getVertexList()) {
+                assertEquals(new HashSet<>(graph.getParents(vertex)), new HashSet<>(loaded.getParents(vertex)));
+            }
+            if (graph.getVertexList().isEmpty()) {
+                continue;
+            }
+            Integer source = graph.getVertexList().get(0);
+            ShortestPathTree<Integer> expected = graph.getShortestPathTree(source);
+            ShortestPathTree<Integer> actual = loaded.getShortestPathTree(source);
+            for (Integer vertex : graph.getVertexList()) {
+                assertEquals(expected.distanceTo(vertex), actual.distanceTo(vertex));
+            }
+        }
+    }
+
+    @Test
+    void incomingEdgesCanBeLeftOut() throws IOException {
+        File file = new File(this.directory, "graph.bin");
+        Graph<Integer> graph = RandomGraphs.random(3, 100, 400, true);
+        BinaryGraphFormat.write(graph.getRepresentation(), file, VertexCodec.INTEGER, false);
+        MappedGraphRepresentation<Integer> mapped = BinaryGraphFormat.open(file, VertexCodec.INTEGER);
+        assertFalse(mapped.hasIncomingEdges());
+        assertEquals(graph.getEdgeList().size(), mapped.edgeCount());
+        assertEquals(new HashSet<>(graph.getEdgeList()), new HashSet<>(mapped.getEdgeList()));
+    }
+
+    @Test
+    void stringVerticesRoundTrip() throws IOException {
+        File file = new File(this.directory, "graph.bin");
+        Graph<String> graph = new Graph<>();
+        graph.addVertex("äx");
+        graph.addVertex("bcd");
+        graph.addEdge("äx", "bcd", 2.5);
+        graph.save(file, VertexCodec.STRING);
+        Graph<String> loaded = Graph.load(file, VertexCodec.STRING);
+        assertEquals(2.5, loaded.getEdgeWeight("äx", "bcd"));
+        assertFalse(loaded.hasEdge("bcd", "äx"));
+    }
+
+    @Test
+    void fileWithoutMagicIsRejected() throws IOException {
+        File file = new File(this.directory, "graph.bin");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(new byte[200]);
+        }
+        assertThrows(IOException.class, () -> Graph.load(file, VertexCodec.STRING));
+    }
+
+    @Test
+    void savedHierarchyAnswersLikeTheOriginal() throws IOException {
+        File file = new File(this.directory, "hierarchy.bin");
+        Graph<Integer> graph = RandomGraphs.random(30, 900, 4500, false);
+        ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(graph.getRepresentation());
+        hierarchy.save(file, VertexCodec.INTEGER);
+        ContractionHierarchy<Integer> loaded = ContractionHierarchy.load(file, VertexCodec.INTEGER);
+        assertEquals(hierarchy.vertexCount(), loaded.vertexCount());
+        assertEquals(hierarchy.edgeCount(), loaded.edgeCount());
+        assertEquals(hierarchy.shortcutCount(), loaded.shortcutCount());
+
+        ContractionHierarchySearch<Integer> search = new ContractionHierarchySearch<>(loaded);
+        Dijkstra<Integer> dijkstra = new Dijkstra<>(graph.getRepresentation());
+        List<Integer> vertices = graph.getVertexList();
+        Random random = new Random(30);
+        for (int query = 0; query < 300; query++) {
+            Integer start = RandomGraphs.randomVertex(random, vertices);
+            Integer end = RandomGraphs.randomVertex(random, vertices);
+            double expected = dijkstra.getShortestPathLength(start, end);
+            assertEquals(expected, search.getShortestPathLength(start, end), 1e-9);
+            RandomGraphs.assertPath(graph.getRepresentation(), start, end, expected, search.getShortestPath(start, end));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentGraphRepresentationTest {
+
+    @Test
+    void snapshotDoesNotSeeLaterChanges() {
+        ConcurrentGraphRepresentation<Integer> graph = new ConcurrentGraphRepresentation<>();
+        graph.addVertex(1);
+        graph.addVertex(2);
+        graph.addEdge(1, 2, 3.0);
+        GraphRepresentation<Integer> snapshot = graph.snapshot();
+
+        graph.addVertex(3);
+        graph.addEdge(2, 3, 1.0);
+        graph.setEdgeWeight(1, 2, 5.0);
+        graph.removeVertex(1);
+
+        assertEquals(2, snapshot.vertexCount());
+        assertTrue(snapshot.hasVertex(1));
+        assertFalse(snapshot.hasVertex(3));
+        assertEquals(3.0, snapshot.getEdgeWeight(1, 2));
+        assertEquals(2, graph.vertexCount());
+        assertEquals(1.0, graph.getEdgeWeight(2, 3));
+    }
+
+    // a writer keeps adding and removing vertices next to a reader running whole queries, which have to see one
+    // version of the graph each. The detours through added vertices are too heavy to shorten the path 0 -> 199
+    @Test
+    void queriesRunNextToWriter() throws InterruptedException {
+        ConcurrentGraphRepresentation<Integer> representation = new ConcurrentGraphRepresentation<>();
+        Graph<Integer> graph = new Graph<>(representation);
+        for (int i = 0; i < 200; i++) {
+            representation.addVertex(i);
+        }
+        for (int i = 0; i + 1 < 200; i++) {
+            representation.addEdge(i, i + 1, 1.0);
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> writerFailure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                Random random = new Random(1);
+                int next = 1000;
+                while (!stop.get()) {
+                    int vertex = next++;
+                    representation.addVertex(vertex);
+                    representation.addEdge(random.nextInt(200), vertex, 1000.0);
+                    representation.addEdge(vertex, random.nextInt(200), 1000.0);
+                    representation.removeVertex(vertex);
+                }
+            } catch (Throwable e) {
+                writerFailure.set(e);
+            }
+        });
+        writer.start();
+        try {
+            long end = System.currentTimeMillis() + 1000;
+            while (System.currentTimeMillis() < end) {
+                assertTrue(graph.BreadthFirstSearch(0).size() >= 200);
+                assertEquals(199.0, graph.getShortestPathTree(0).distanceTo(199), 0.0);
+                assertEquals(199.0, graph.getShortestPath(0, 199).getLength(), 0.0);
+                graph.getVerticesAtDistance(0, 3);
+                graph.isCyclic();
+                graph.getStronglyConnectedComponents();
+                assertEquals(199.0, new BidirectionalDijkstra<>(representation).getShortestPathLength(0, 199), 0.0);
+                assertTrue(new CompressedSparseRowRepresentation<>(representation).vertexCount() >= 200);
+                new ContractionHierarchy<>(representation);
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+        assertNull(writerFailure.get());
+    }
+}
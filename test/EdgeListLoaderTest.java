@@ -0,0 +1,93 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EdgeListLoaderTest {
+
+    @TempDir
+    File directory;
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(this.directory, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    void readsEdgeListWithCommentsSeparatorsAndLineEndings() throws IOException {
+        File file = this.write("edges.txt",
+                "# comment\n1\t2\t3.5\n2,3\n1 2 1.25\r\n\n% comment\r\n3 1 1e2\n4 4 -2\n5 6 0.1234567890123456789");
+        EdgeListLoader<Integer> loader = new EdgeListLoader<>(id -> (int) id).readEdgeList(file);
+        CompressedSparseRowRepresentation<Integer> graph = loader.buildCompressedSparseRow();
+
+        assertEquals(6, loader.edgesRead());
+        assertEquals(5, loader.uniqueEdgeCount());
+        assertEquals(6, graph.vertexCount());
+        // the duplicate 1 -> 2 keeps its smaller weight
+        assertEquals(1.25, graph.getEdgeWeight(1, 2));
+        // the weight defaults to 1
+        assertEquals(1.0, graph.getEdgeWeight(2, 3));
+        assertEquals(100.0, graph.getEdgeWeight(3, 1));
+        assertEquals(-2.0, graph.getEdgeWeight(4, 4));
+        assertEquals(0.1234567890123456789, graph.getEdgeWeight(5, 6));
+        assertFalse(graph.hasEdge(2, 1));
+        assertEquals(graph.getVertexIndex(3), graph.getParentIndex(graph.getVertexIndex(1), 0));
+
+        AdjacencyListRepresentation<Integer> adjacencyList = loader.buildAdjacencyList();
+        assertEquals(new HashSet<>(graph.getEdgeList()), new HashSet<>(adjacencyList.getEdgeList()));
+    }
+
+    @Test
+    void readsDimacs() throws IOException {
+        File file = this.write("graph.gr", "c comment\np sp 5 3\na 1 2 7\r\na 2 3 4\na 1 2 5\n");
+        EdgeListLoader<Long> loader = new EdgeListLoader<>(Long::valueOf).readDimacs(file);
+        CompressedSparseRowRepresentation<Long> graph = loader.buildCompressedSparseRow();
+
+        // the header declares five vertices, two of them without edges
+        assertEquals(5, graph.vertexCount());
+        assertEquals(2, graph.edgeCount());
+        assertEquals(5.0, graph.getEdgeWeight(1L, 2L));
+        assertEquals(4.0, graph.getEdgeWeight(2L, 3L));
+    }
+
+    @Test
+    void rejectsMalformedLines() throws IOException {
+        File file = this.write("edges.txt", "1 2\n1 x\n");
+        EdgeListLoader<Long> loader = new EdgeListLoader<>(id -> id);
+        assertThrows(IOException.class, () -> loader.readEdgeList(file));
+    }
+
+    @Test
+    void duplicatesKeepTheSmallestWeight() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            content.append(i % 50).append(' ').append(i % 7).append(' ').append(1000 - i).append('\n');
+        }
+        File file = this.write("edges.txt", content.toString());
+        EdgeListLoader<Integer> loader = new EdgeListLoader<>(id -> (int) id).readEdgeList(file);
+        CompressedSparseRowRepresentation<Integer> graph = loader.buildCompressedSparseRow();
+
+        assertEquals(2000, loader.edgesRead());
+        assertEquals(350, graph.edgeCount());
+        for (int from = 0; from < 50; from++) {
+            for (int to = 0; to < 7; to++) {
+                double smallest = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < 2000; i++) {
+                    if (i % 50 == from && i % 7 == to) {
+                        smallest = Math.min(smallest, 1000 - i);
+                    }
+                }
+                assertEquals(smallest, graph.getEdgeWeight(from, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// random graphs and path checks shared by the tests
+final class RandomGraphs {
+
+    private RandomGraphs() {
+    }
+
+    // vertices are spread out (i * 7) and a twentieth of them removed again, so indexes have tombstones in them
+    static Graph<Integer> random(long seed, int vertexCount, int edgeCount, boolean trackIncomingEdges) {
+        Random random = new Random(seed);
+        Graph<Integer> graph = new Graph<>(new AdjacencyListRepresentation<>(16, trackIncomingEdges));
+        for (int i = 0; i < vertexCount; i++) {
+            graph.addVertex(i * 7);
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            int from = random.nextInt(vertexCount) * 7;
+            int to = random.nextInt(vertexCount) * 7;
+            if (!graph.hasEdge(from, to)) {
+                graph.addEdge(from, to, 1 + random.nextInt(20));
+            }
+        }
+        for (int i = 0; i < vertexCount / 20; i++) {
+            graph.removeVertex(random.nextInt(vertexCount) * 7);
+        }
+        return graph;
+    }
+
+    static Integer randomVertex(Random random, List<Integer> vertices) {
+        return vertices.get(random.nextInt(vertices.size()));
+    }
+
+    // the path has to be a chain of edges of the graph from start to end whose weights add up to length
+    static <V> void assertPath(GraphRepresentation<V> graph, V start, V end, double length, Path<V> path) {
+        if (length == Double.POSITIVE_INFINITY) {
+            assertNull(path);
+            return;
+        }
+        assertEquals(length, path.getLength(), 1e-9);
+        if (start.equals(end)) {
+            return;
+        }
+        V current = start;
+        double sum = 0.0;
+        for (Edge<V> edge : path.getEdges()) {
+            assertEquals(current, edge.vertexFrom);
+            assertTrue(graph.hasEdge(edge.vertexFrom, edge.vertexTo));
+            assertEquals(graph.getEdgeWeight(edge.vertexFrom, edge.vertexTo), edge.weight);
+            sum += edge.weight;
+            current = edge.vertexTo;
+        }
+        assertEquals(end, current);
+        assertEquals(length, sum, 1e-9);
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// the other representations have to answer like AdjacencyListRepresentation after the same changes
+class RepresentationParityTest {
+
+    @Test
+    void offHeapMatchesAdjacencyList() {
+        for (long seed = 0; seed < 60; seed++) {
+            boolean trackIncomingEdges = seed % 2 == 0;
+            this.replay(seed, new AdjacencyListRepresentation<>(16, trackIncomingEdges), new OffHeapRepresentation<>(trackIncomingEdges));
+        }
+    }
+
+    @Test
+    void concurrentMatchesAdjacencyList() {
+        for (long seed = 0; seed < 60; seed++) {
+            ConcurrentGraphRepresentation<Integer> concurrent = new ConcurrentGraphRepresentation<>();
+            this.replay(seed, new AdjacencyListRepresentation<>(16, true), concurrent);
+            assertSameGraph(concurrent, concurrent.snapshot());
+        }
+    }
+
+    @Test
+    void compressedSparseRowMatchesAdjacencyList() {
+        for (long seed = 1; seed <= 30; seed++) {
+            Graph<Integer> graph = RandomGraphs.random(seed, 20 + (int) seed * 10, (int) seed * 50, true);
+            GraphRepresentation<Integer> representation = graph.getRepresentation();
+            CompressedSparseRowRepresentation<Integer> copy = new CompressedSparseRowRepresentation<>(representation);
+            assertSameGraph(representation, copy);
+            for (Integer vertex : representation.getVertexList()) {
+                assertEquals(new HashSet<>(representation.getVertexNeighbours(vertex)), new HashSet<>(copy.getVertexNeighbours(vertex)));
+                assertEquals(new HashSet<>(graph.getParents(vertex)), new HashSet<>(new Graph<>(copy).getParents(vertex)));
+            }
+        }
+    }
+
+    // applies the same random changes to both, a change has to fail on both or on neither
+    private void replay(long seed, GraphRepresentation<Integer> expected, GraphRepresentation<Integer> actual) {
+        Random random = new Random(seed);
+        int vertexCount = 5 + random.nextInt(seed % 3 == 0 ? 50 : 300);
+        int hub = random.nextInt(vertexCount);
+        for (int step = 0; step < 3000; step++) {
+            int operation = random.nextInt(11);
+            int from = random.nextBoolean() ? hub : random.nextInt(vertexCount);
+            int to = random.nextInt(vertexCount);
+            double weight = random.nextInt(100);
+            String expectedError = apply(expected, operation, from, to, weight);
+            String actualError = apply(actual, operation, from, to, weight);
+            assertEquals(expectedError, actualError, "seed " + seed + " step " + step);
+            if (operation == 10 && expected.hasVertex(from) && expected.hasVertex(to)) {
+                assertEquals(expected.hasEdge(from, to), actual.hasEdge(from, to));
+            }
+            if (step % 500 == 0) {
+                assertSameGraph(expected, actual);
+            }
+        }
+        assertSameGraph(expected, actual);
+
+        if (expected.vertexCount() > 0) {
+            Integer source = expected.getVertexList().get(0);
+            ShortestPathTree<Integer> expectedTree = new Dijkstra<>(expected).getShortestPathTree(source);
+            ShortestPathTree<Integer> actualTree = new Dijkstra<>(actual).getShortestPathTree(source);
+            for (Integer vertex : expected.getVertexList()) {
+                assertEquals(expectedTree.distanceTo(vertex), actualTree.distanceTo(vertex));
+            }
+        }
+    }
+
+    private static String apply(GraphRepresentation<Integer> graph, int operation, int from, int to, double weight) {
+        try {
+            switch (operation) {
+                case 0:
+                case 1:
+                    graph.addVertex(to);
+                    break;
+                case 2:
+                    graph.removeVertex(to);
+                    break;
+                case 3:
+                case 4:
+                case 5:
+                case 6:
+                    graph.addEdge(from, to, weight);
+                    break;
+                case 7:
+                case 8:
+                    graph.removeEdge(from, to);
+                    break;
+                case 9:
+                    graph.setEdgeWeight(from, to, weight);
+                    break;
+                default:
+                    break;
+            }
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    // same vertices and edges, and an index cursor that agrees with them, in both directions when actual tracks incoming edges
+    static <V> void assertSameGraph(GraphRepresentation<V> expected, GraphRepresentation<V> actual) {
+        assertEquals(expected.vertexCount(), actual.vertexCount());
+        assertEquals(new HashSet<>(expected.getVertexList()), new HashSet<>(actual.getVertexList()));
+        assertEquals(expected.getEdgeList().size(), actual.getEdgeList().size());
+        assertEquals(new HashSet<>(expected.getEdgeList()), new HashSet<>(actual.getEdgeList()));
+
+        Set<Edge<V>> cursorEdges = new HashSet<>();
+        List<Edge<V>> parentEdges = new ArrayList<>();
+        for (int i = 0; i < actual.vertexIndexBound(); i++) {
+            V vertex = actual.getVertexAt(i);
+            if (vertex == null) {
+                continue;
+            }
+            assertEquals(i, actual.getVertexIndex(vertex));
+            for (int j = 0; j < actual.neighbourCount(i); j++) {
+                V neighbour = actual.getVertexAt(actual.getNeighbourIndex(i, j));
+                assertNotNull(neighbour);
+                cursorEdges.add(new Edge<>(vertex, neighbour, actual.getNeighbourWeight(i, j)));
+            }
+            if (actual.hasIncomingEdges()) {
+                for (int j = 0; j < actual.parentCount(i); j++) {
+                    V parent = actual.getVertexAt(actual.getParentIndex(i, j));
+                    assertNotNull(parent);
+                    parentEdges.add(new Edge<>(parent, vertex, actual.getParentWeight(i, j)));
+                }
+            }
+        }
+        assertEquals(new HashSet<>(expected.getEdgeList()), cursorEdges);
+        if (actual.hasIncomingEdges()) {
+            assertEquals(expected.getEdgeList().size(), parentEdges.size());
+            assertEquals(cursorEdges, new HashSet<>(parentEdges));
+        }
+        for (Edge<V> edge : expected.getEdgeList()) {
+            assertEquals(edge.weight, actual.getEdgeWeight(edge.vertexFrom, edge.vertexTo));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// every strategy against Dijkstra on the same random graphs
+class ShortestPathFindersTest {
+
+    @Test
+    void pointToPointFindersMatchDijkstra() {
+        for (long seed = 1; seed <= 30; seed++) {
+            Graph<Integer> graph = RandomGraphs.random(seed, 100 + (int) seed * 10, (int) seed * 60, true);
+            GraphRepresentation<Integer> representation = graph.getRepresentation();
+            Dijkstra<Integer> dijkstra = new Dijkstra<>(representation);
+            List<ShortestPathFinder<Integer>> finders = List.of(
+                    new BidirectionalDijkstra<>(representation),
+                    new BidirectionalDijkstra<>(new CompressedSparseRowRepresentation<>(representation)),
+                    new AStar<>(representation, (vertex, target) -> 0.0),
+                    new ContractionHierarchySearch<>(new ContractionHierarchy<>(representation)));
+            List<Integer> vertices = representation.getVertexList();
+            Random random = new Random(seed);
+            for (int query = 0; query < 50; query++) {
+                Integer start = RandomGraphs.randomVertex(random, vertices);
+                Integer end = query == 0 ? start : RandomGraphs.randomVertex(random, vertices);
+                double expected = dijkstra.getShortestPathLength(start, end);
+                for (ShortestPathFinder<Integer> finder : finders) {
+                    assertEquals(expected, finder.getShortestPathLength(start, end), 1e-9, finder.getClass().getName());
+                    RandomGraphs.assertPath(representation, start, end, expected, finder.getShortestPath(start, end));
+                }
+            }
+        }
+    }
+
+    @Test
+    void aStarWithManhattanHeuristicMatchesDijkstraOnGrid() {
+        int side = 40;
+        Random random = new Random(5);
+        Graph<Integer> graph = new Graph<>();
+        for (int i = 0; i < side * side; i++) {
+            graph.addVertex(i);
+        }
+        // weights of at least 1 keep the manhattan distance admissible
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int vertex = y * side + x;
+                if (x + 1 < side && random.nextInt(10) != 0) {
+                    double weight = 1 + random.nextDouble();
+                    graph.addEdge(vertex, vertex + 1, weight);
+                    graph.addEdge(vertex + 1, vertex, weight);
+                }
+                if (y + 1 < side && random.nextInt(10) != 0) {
+                    double weight = 1 + random.nextDouble();
+                    graph.addEdge(vertex, vertex + side, weight);
+                    graph.addEdge(vertex + side, vertex, weight);
+                }
+            }
+        }
+        GraphRepresentation<Integer> representation = graph.getRepresentation();
+        Dijkstra<Integer> dijkstra = new Dijkstra<>(representation);
+        AStar<Integer> aStar = new AStar<>(representation,
+                (vertex, target) -> Math.abs(vertex % side - target % side) + Math.abs(vertex / side - target / side));
+        ContractionHierarchySearch<Integer> hierarchySearch = new ContractionHierarchySearch<>(new ContractionHierarchy<>(representation));
+        for (int query = 0; query < 200; query++) {
+            int start = random.nextInt(side * side);
+            int end = random.nextInt(side * side);
+            double expected = dijkstra.getShortestPathLength(start, end);
+            assertEquals(expected, aStar.getShortestPathLength(start, end), 1e-9);
+            RandomGraphs.assertPath(representation, start, end, expected, aStar.getShortestPath(start, end));
+            assertEquals(expected, hierarchySearch.getShortestPathLength(start, end), 1e-9);
+            RandomGraphs.assertPath(representation, start, end, expected, hierarchySearch.getShortestPath(start, end));
+        }
+    }
+
+    @Test
+    void deltaSteppingMatchesDijkstra() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (long seed = 1; seed <= 20; seed++) {
+                Graph<Integer> graph = RandomGraphs.random(seed, 150, (int) seed * 40, false);
+                GraphRepresentation<Integer> representation = graph.getRepresentation();
+                Dijkstra<Integer> dijkstra = new Dijkstra<>(representation);
+                List<Integer> vertices = representation.getVertexList();
+                for (double delta : new double[]{0.5, 3.0, 50.0}) {
+                    DeltaStepping<Integer> deltaStepping = new DeltaStepping<>(representation, delta, pool);
+                    for (int k = 0; k < 3; k++) {
+                        Integer source = vertices.get(k);
+                        ShortestPathTree<Integer> expected = dijkstra.getShortestPathTree(source);
+                        ShortestPathTree<Integer> tree = deltaStepping.getShortestPathTree(source);
+                        for (Integer vertex : vertices) {
+                            double distance = expected.distanceTo(vertex);
+                            assertEquals(distance, tree.distanceTo(vertex), 1e-9);
+                            RandomGraphs.assertPath(representation, source, vertex, distance, tree.pathTo(vertex));
+                        }
+                        assertEquals(expected.getPaths().size(), deltaStepping.getShortestPaths(source).size());
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}